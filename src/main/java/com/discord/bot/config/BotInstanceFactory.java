@@ -0,0 +1,221 @@
+package com.discord.bot.config;
+
+import com.discord.bot.config.properties.LavalinkProperties;
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.audio.LavalinkNodeBalancer;
+import com.discord.bot.music.audio.LavalinkNodeRouter;
+import com.discord.bot.music.audio.TrackScheduler;
+import com.discord.bot.music.service.SessionResumeService;
+import dev.arbjerg.lavalink.client.Helpers;
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.NodeOptions;
+import dev.arbjerg.lavalink.libraries.jda.JDAVoiceUpdateListener;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Builds bot instances (JDA + LavalinkClient pairs).
+ * Used by JdaConfig at startup and by the bot pool admin API at runtime.
+ * With discord.sharding.enabled the primary bot (and optionally the
+ * secondaries) run on a DefaultShardManager instead of a single session.
+ *
+ * Every bot starts from JDA's light profile (no cache flags, no member cache,
+ * no chunking) and only opts back in to what its role reads:
+ * <ul>
+ * <li>primary: voice states of members in voice channels, which the voice
+ * listeners and slash commands use to find the caller's channel, and the
+ * member permission overrides that /autovoice lock and unlock edit</li>
+ * <li>secondary: nothing but its own voice connection</li>
+ * </ul>
+ * All bots share one HTTP client and one set of JDA thread pools
+ * ({@link SharedJdaResources}).
+ */
+@Component
+public class BotInstanceFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(BotInstanceFactory.class);
+
+    @Value("${discord.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    /** Number of shards; -1 lets Discord recommend a count. */
+    @Value("${discord.sharding.shard-count:-1}")
+    private int shardCount;
+
+    @Value("${discord.sharding.secondaries:false}")
+    private boolean shardSecondaries;
+
+    /** How long a sharded bot may take until all of its shards are connected. */
+    @Value("${discord.sharding.ready-timeout-ms:900000}")
+    private long shardReadyTimeoutMs;
+
+    private final TrackScheduler trackScheduler;
+    private final SharedJdaResources sharedResources;
+    private final LavalinkProperties lavalinkProperties;
+    private final LavalinkNodeRouter nodeRouter;
+    private final SessionResumeService sessionResumeService;
+
+    public BotInstanceFactory(TrackScheduler trackScheduler, SharedJdaResources sharedResources,
+            LavalinkProperties lavalinkProperties, LavalinkNodeRouter nodeRouter,
+            SessionResumeService sessionResumeService) {
+        this.trackScheduler = trackScheduler;
+        this.sharedResources = sharedResources;
+        this.lavalinkProperties = lavalinkProperties;
+        this.nodeRouter = nodeRouter;
+        this.sessionResumeService = sessionResumeService;
+    }
+
+    /**
+     * Create a LavalinkClient for the bot owning this token, connected to
+     * every configured node, with track lifecycle and session resume
+     * listeners registered.
+     * New links go to the least-loaded playback node
+     * ({@link LavalinkNodeBalancer}).
+     */
+    public LavalinkClient createLavalinkClient(String token) {
+        List<LavalinkProperties.Node> nodes = lavalinkProperties.getNodes();
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("At least one Lavalink node must be configured in lavalink.nodes");
+        }
+
+        long userId = Helpers.getUserIdFromToken(token);
+        LavalinkClient client = new LavalinkClient(userId);
+        client.setLoadBalancer(new LavalinkNodeBalancer(client, nodeRouter::isPlaybackNode));
+
+        for (LavalinkProperties.Node node : nodes) {
+            client.addNode(new NodeOptions.Builder()
+                    .setName(node.getName() + "-" + userId)
+                    .setServerUri(URI.create(node.getUri()))
+                    .setPassword(node.getPassword())
+                    .build());
+        }
+
+        trackScheduler.registerListeners(client);
+        sessionResumeService.registerListeners(client);
+        return client;
+    }
+
+    /**
+     * Log in the primary bot, which receives slash commands and voice events,
+     * and wait until every session is ready.
+     */
+    public BotInstance createPrimary(String token, Object... listeners) throws InterruptedException {
+        LavalinkClient lavalink = createLavalinkClient(token);
+        try {
+            if (shardingEnabled) {
+                ShardManager shardManager = sharedResources.apply(DefaultShardManagerBuilder
+                        .createLight(token, GatewayIntent.GUILD_VOICE_STATES))
+                        .enableCache(CacheFlag.VOICE_STATE, CacheFlag.MEMBER_OVERRIDES)
+                        .setMemberCachePolicy(MemberCachePolicy.VOICE)
+                        .setChunkingFilter(ChunkingFilter.NONE)
+                        .setShardsTotal(shardCount)
+                        .addEventListeners(listeners)
+                        .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(lavalink))
+                        .build();
+
+                awaitShardsReady(shardManager);
+                return new BotInstance(shardManager, lavalink, true, 0);
+            }
+
+            JDA jda = sharedResources.apply(JDABuilder.createLight(token, GatewayIntent.GUILD_VOICE_STATES))
+                    .enableCache(CacheFlag.VOICE_STATE, CacheFlag.MEMBER_OVERRIDES)
+                    .setMemberCachePolicy(MemberCachePolicy.VOICE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .addEventListeners(listeners)
+                    .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(lavalink))
+                    .build();
+
+            jda.awaitReady();
+            return new BotInstance(jda, lavalink, true, 0);
+        } catch (RuntimeException | InterruptedException e) {
+            lavalink.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Log in a secondary (voice-only) bot and wait until it is ready.
+     */
+    public BotInstance createSecondary(String token, int index) throws InterruptedException {
+        LavalinkClient lavalink = createLavalinkClient(token);
+        try {
+            if (shardingEnabled && shardSecondaries) {
+                // Voice states are needed to connect; only the bot's own
+                // member is cached to hold its state
+                ShardManager shardManager = sharedResources.apply(DefaultShardManagerBuilder
+                        .createLight(token, GatewayIntent.GUILD_VOICE_STATES))
+                        .enableCache(CacheFlag.VOICE_STATE)
+                        .setMemberCachePolicy(MemberCachePolicy.NONE)
+                        .setChunkingFilter(ChunkingFilter.NONE)
+                        .setShardsTotal(shardCount)
+                        .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(lavalink))
+                        .build();
+
+                awaitShardsReady(shardManager);
+                return new BotInstance(shardManager, lavalink, false, index);
+            }
+
+            JDA jda = sharedResources.apply(JDABuilder.createLight(token, GatewayIntent.GUILD_VOICE_STATES))
+                    .enableCache(CacheFlag.VOICE_STATE)
+                    .setMemberCachePolicy(MemberCachePolicy.NONE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(lavalink))
+                    .build();
+
+            jda.awaitReady();
+            return new BotInstance(jda, lavalink, false, index);
+        } catch (RuntimeException | InterruptedException e) {
+            lavalink.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Block until every shard has connected. Shards log in one identify
+     * window after another, so this can take a while for large shard counts.
+     * A shard that never connects shuts the whole manager down instead of
+     * blocking startup forever.
+     *
+     * @throws IllegalStateException if the shards are not all connected
+     *                               within discord.sharding.ready-timeout-ms
+     */
+    private void awaitShardsReady(ShardManager shardManager) throws InterruptedException {
+        int total = shardManager.getShardsTotal();
+        long deadline = System.nanoTime() + shardReadyTimeoutMs * 1_000_000L;
+        log.info("Waiting for {} shard(s) to connect...", total);
+        try {
+            while (connectedShards(shardManager) < total) {
+                if (System.nanoTime() - deadline > 0) {
+                    long connected = connectedShards(shardManager);
+                    shardManager.shutdown();
+                    throw new IllegalStateException("Only " + connected + " of " + total
+                            + " shard(s) connected within " + shardReadyTimeoutMs + " ms");
+                }
+                Thread.sleep(500);
+            }
+        } catch (InterruptedException e) {
+            shardManager.shutdown();
+            throw e;
+        }
+        log.info("All {} shard(s) ready", total);
+    }
+
+    private static long connectedShards(ShardManager shardManager) {
+        return shardManager.getShards().stream()
+                .filter(shard -> shard.getStatus() == JDA.Status.CONNECTED)
+                .count();
+    }
+}
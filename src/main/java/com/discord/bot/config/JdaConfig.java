@@ -2,29 +2,31 @@ package com.discord.bot.config;
 
 import com.discord.bot.music.audio.BotInstance;
 import com.discord.bot.music.audio.BotInstancePool;
-import com.discord.bot.music.audio.TrackScheduler;
 import com.discord.bot.music.command.CommandManager;
 import com.discord.bot.music.listener.AutoVoiceListener;
 import com.discord.bot.music.listener.VoiceChannelListener;
-import dev.arbjerg.lavalink.client.Helpers;
-import dev.arbjerg.lavalink.client.LavalinkClient;
-import dev.arbjerg.lavalink.client.NodeOptions;
-import dev.arbjerg.lavalink.libraries.jda.JDAVoiceUpdateListener;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import com.discord.bot.music.service.OnDemandBotService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JDA configuration — creates the primary Discord bot instance
  * and optional secondary bot instances for multi-channel music playback.
+ * The primary bot may run sharded (discord.sharding.enabled).
+ * Once the primary is ready, secondary bots log in concurrently and join the
+ * pool as they become ready, or stay dormant until needed when discord.pool.lazy.enabled is set.
  */
 @Configuration
 public class JdaConfig {
@@ -37,21 +39,18 @@ public class JdaConfig {
         @Value("${discord.extra-tokens:}")
         private String extraTokensRaw;
 
-        @Value("${lavalink.nodes[0].uri}")
-        private String nodeUri;
-
-        @Value("${lavalink.nodes[0].password}")
-        private String nodePassword;
-
-        @Value("${lavalink.nodes[0].name:main-node}")
-        private String nodeName;
+        @Value("${discord.startup.parallelism:4}")
+        private int startupParallelism;
 
         @Bean
-        public JDA jda(CommandManager commandManager,
+        public BotInstance primaryBot(CommandManager commandManager,
                         VoiceChannelListener voiceChannelListener,
                         AutoVoiceListener autoVoiceListener,
                         BotInstancePool botInstancePool,
-                        TrackScheduler trackScheduler) throws InterruptedException {
+                        BotInstanceFactory botInstanceFactory,
+                        OnDemandBotService onDemandBotService,
+                        SharedJdaResources sharedResources,
+                        MeterRegistry meterRegistry) throws InterruptedException {
 
                 log.info("🚀 Starting Multi-Bot System initialization...");
 
@@ -60,83 +59,109 @@ public class JdaConfig {
                         throw new IllegalStateException("Primary Discord bot token is required");
                 }
 
-                // Create primary bot's LavalinkClient
-                LavalinkClient primaryLavalink = createLavalinkClient(botToken, trackScheduler);
-
-                // Create primary JDA instance
-                JDA primaryJda = JDABuilder.createDefault(botToken)
-                                .enableIntents(
-                                                GatewayIntent.GUILD_VOICE_STATES,
-                                                GatewayIntent.GUILD_MESSAGES,
-                                                GatewayIntent.GUILD_MESSAGE_REACTIONS)
-                                .enableCache(CacheFlag.VOICE_STATE)
-                                .addEventListeners(
-                                                commandManager,
-                                                voiceChannelListener,
-                                                autoVoiceListener)
-                                .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(primaryLavalink))
-                                .build();
-
-                primaryJda.awaitReady();
-                log.info("⭐ Primary Bot: {} (ID: {})",
-                                primaryJda.getSelfUser().getName(), primaryJda.getSelfUser().getIdLong());
+                // Create primary bot (single session or sharded)
+                long startedAt = System.nanoTime();
+                BotInstance primaryInstance = botInstanceFactory.createPrimary(botToken,
+                                commandManager,
+                                voiceChannelListener,
+                                autoVoiceListener);
+                long elapsed = recordStartup(meterRegistry, "primary", startedAt);
+                log.info("⭐ Primary Bot: {} (ID: {}){} ready in {} ms",
+                                primaryInstance.getBotName(), primaryInstance.getBotId(),
+                                primaryInstance.isSharded()
+                                                ? " on " + primaryInstance.getShardManager().getShardsTotal()
+                                                                + " shard(s)"
+                                                : "",
+                                elapsed);
 
                 // Register primary bot in pool
-                BotInstance primaryInstance = new BotInstance(primaryJda, primaryLavalink, true, 0);
                 botInstancePool.register(primaryInstance);
 
-                // Parse extra tokens
+                // Secondary bots log in in the background and join the pool as they
+                // become ready. They start only once the primary is up, so a primary
+                // that fails to log in leaves no secondary sessions behind
+                startSecondaryBots(botInstancePool, botInstanceFactory, onDemandBotService, sharedResources,
+                                meterRegistry);
+
+                log.info("✅ Multi-Bot System: primary ready, {} bot(s) in pool so far, {} live thread(s)",
+                                botInstancePool.getTotalCount(), sharedResources.getLiveThreadCount());
+                return primaryInstance;
+        }
+
+        /**
+         * Log in every secondary bot concurrently. Each token has its own
+         * identify budget with Discord, so parallel logins do not compete;
+         * discord.startup.parallelism only caps local threads. In lazy mode the
+         * tokens are handed to {@link OnDemandBotService} instead.
+         */
+        private void startSecondaryBots(BotInstancePool botInstancePool,
+                        BotInstanceFactory botInstanceFactory,
+                        OnDemandBotService onDemandBotService,
+                        SharedJdaResources sharedResources,
+                        MeterRegistry meterRegistry) {
                 log.info("🔍 Extra Tokens Raw String: '{}'", extraTokensRaw);
 
-                if (extraTokensRaw != null && !extraTokensRaw.trim().isEmpty()) {
-                        String[] tokens = extraTokensRaw.split(",");
-                        int index = 1;
+                if (extraTokensRaw == null || extraTokensRaw.trim().isEmpty()) {
+                        return;
+                }
+
+                List<String> tokens = Arrays.stream(extraTokensRaw.split(","))
+                                .map(String::trim)
+                                .filter(token -> !token.isEmpty() && !token.startsWith("${"))
+                                .toList();
+                if (tokens.isEmpty()) {
+                        return;
+                }
+
+                if (onDemandBotService.isEnabled()) {
                         for (String token : tokens) {
-                                token = token.trim();
-                                if (!token.isEmpty() && !token.startsWith("${")) {
-                                        log.info("Initializing secondary bot #{}...", index);
-                                        try {
-                                                LavalinkClient secondaryLavalink = createLavalinkClient(token,
-                                                                trackScheduler);
-
-                                                JDA secondaryJda = JDABuilder.createDefault(token)
-                                                                .enableIntents(GatewayIntent.GUILD_VOICE_STATES)
-                                                                .enableCache(CacheFlag.VOICE_STATE)
-                                                                .setVoiceDispatchInterceptor(new JDAVoiceUpdateListener(
-                                                                                secondaryLavalink))
-                                                                .build();
-
-                                                secondaryJda.awaitReady();
-                                                log.info("🎵 Secondary Bot #{} [{}]: Connected!",
-                                                                index, secondaryJda.getSelfUser().getName());
-
-                                                BotInstance secondaryInstance = new BotInstance(secondaryJda,
-                                                                secondaryLavalink, false, index);
-                                                botInstancePool.register(secondaryInstance);
-                                                index++;
-                                        } catch (Exception e) {
-                                                log.error("❌ Failed to initialize secondary bot #{}: {}", index,
-                                                                e.getMessage());
-                                        }
-                                }
+                                onDemandBotService.addDormant(token, botInstancePool.reserveIndex());
                         }
+                        return;
                 }
 
-                log.info("✅ Multi-Bot System: {} bot(s) total available in pool", botInstancePool.getTotalCount());
-                return primaryJda;
-        }
-
-        private LavalinkClient createLavalinkClient(String token, TrackScheduler trackScheduler) {
-                long userId = Helpers.getUserIdFromToken(token);
-                LavalinkClient client = new LavalinkClient(userId);
+                ExecutorService loginExecutor = Executors.newFixedThreadPool(
+                                Math.max(1, Math.min(startupParallelism, tokens.size())),
+                                new CustomizableThreadFactory("bot-login-"));
+
+                for (String token : tokens) {
+                        int index = botInstancePool.reserveIndex();
+                        loginExecutor.execute(() -> {
+                                log.info("Initializing secondary bot #{}...", index);
+                                long startedAt = System.nanoTime();
+                                try {
+                                        BotInstance secondaryInstance = botInstanceFactory
+                                                        .createSecondary(token, index);
+                                        long elapsed = recordStartup(meterRegistry, "secondary", startedAt);
+                                        log.info("🎵 Secondary Bot #{} [{}]: Connected in {} ms!",
+                                                        index, secondaryInstance.getBotName(), elapsed);
+
+                                        botInstancePool.register(secondaryInstance);
+                                        log.info("✅ Multi-Bot System: {} bot(s) total available in pool, "
+                                                        + "{} live thread(s)",
+                                                        botInstancePool.getTotalCount(),
+                                                        sharedResources.getLiveThreadCount());
+                                } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                        log.error("❌ Interrupted while initializing secondary bot #{}", index);
+                                } catch (Exception e) {
+                                        log.error("❌ Failed to initialize secondary bot #{}: {}", index,
+                                                        e.getMessage());
+                                }
+                        });
+                }
 
-                client.addNode(new NodeOptions.Builder()
-                                .setName(nodeName + "-" + userId)
-                                .setServerUri(URI.create(nodeUri))
-                                .setPassword(nodePassword)
-                                .build());
+                // Let queued logins finish, then release the threads
+                loginExecutor.shutdown();
+        }
 
-                trackScheduler.registerListeners(client);
-                return client;
+        private long recordStartup(MeterRegistry meterRegistry, String role, long startedAt) {
+                long elapsedNanos = System.nanoTime() - startedAt;
+                Timer.builder("bot.startup")
+                                .description("Time from login to a bot being ready")
+                                .tag("role", role)
+                                .register(meterRegistry)
+                                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+                return elapsedNanos / 1_000_000;
         }
 }
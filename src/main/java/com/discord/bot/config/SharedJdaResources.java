@@ -0,0 +1,125 @@
+package com.discord.bot.config;
+
+import com.discord.bot.music.audio.BotInstancePool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * HTTP client and thread pools shared by every JDA session in the process.
+ * By default each JDA builds its own OkHttp client, rate-limit scheduler,
+ * callback pool and gateway pool; with several tokens (and shards) that is
+ * several copies of each. Pools are handed to JDA with shutdown disabled,
+ * so retiring one bot leaves the others running; they are closed here on
+ * application shutdown.
+ *
+ * Listener events are not shared by default: each session dispatches on its
+ * own gateway thread, in gateway order, so a slow listener in one session
+ * never holds up the others. discord.threads.event-pool opts in to a shared
+ * event pool instead.
+ */
+@Component
+public class SharedJdaResources {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedJdaResources.class);
+
+    private final OkHttpClient httpClient;
+    private final ScheduledExecutorService rateLimitScheduler;
+    private final ExecutorService rateLimitElastic;
+    private final ScheduledExecutorService gatewayPool;
+    private final ExecutorService callbackPool;
+    private final ExecutorService eventPool;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final BotInstancePool botInstancePool;
+
+    public SharedJdaResources(BotInstancePool botInstancePool, MeterRegistry meterRegistry,
+            @Value("${discord.threads.rate-limit-scheduler:2}") int rateLimitThreads,
+            @Value("${discord.threads.gateway-pool:2}") int gatewayThreads,
+            @Value("${discord.threads.callback-pool:4}") int callbackThreads,
+            @Value("${discord.threads.event-pool:0}") int eventThreads) {
+        this.botInstancePool = botInstancePool;
+        this.httpClient = new OkHttpClient.Builder().build();
+        this.rateLimitScheduler = Executors.newScheduledThreadPool(rateLimitThreads,
+                new CustomizableThreadFactory("jda-ratelimit-"));
+        this.rateLimitElastic = Executors.newCachedThreadPool(new CustomizableThreadFactory("jda-ratelimit-elastic-"));
+        this.gatewayPool = Executors.newScheduledThreadPool(gatewayThreads,
+                new CustomizableThreadFactory("jda-gateway-"));
+        this.callbackPool = Executors.newFixedThreadPool(callbackThreads,
+                new CustomizableThreadFactory("jda-callback-"));
+        this.eventPool = eventThreads > 0
+                ? Executors.newFixedThreadPool(eventThreads, new CustomizableThreadFactory("jda-events-"))
+                : null;
+
+        Gauge.builder("bot.threads.per_bot", this, SharedJdaResources::getThreadsPerBot)
+                .description("Live JVM threads divided by the number of bots in the pool")
+                .register(meterRegistry);
+
+        log.info("Shared JDA pools: rate-limit {}, gateway {}, callback {}, event {} thread(s)",
+                rateLimitThreads, gatewayThreads, callbackThreads,
+                eventThreads > 0 ? eventThreads : "per-session");
+    }
+
+    /**
+     * Use the shared client and pools for a single-session bot.
+     */
+    public JDABuilder apply(JDABuilder builder) {
+        builder.setHttpClient(httpClient)
+                .setRateLimitScheduler(rateLimitScheduler, false)
+                .setRateLimitElastic(rateLimitElastic, false)
+                .setGatewayPool(gatewayPool, false)
+                .setCallbackPool(callbackPool, false);
+        return eventPool != null ? builder.setEventPool(eventPool, false) : builder;
+    }
+
+    /**
+     * Use the shared client and pools for every shard of a sharded bot.
+     */
+    public DefaultShardManagerBuilder apply(DefaultShardManagerBuilder builder) {
+        builder.setHttpClient(httpClient)
+                .setRateLimitScheduler(rateLimitScheduler, false)
+                .setRateLimitElastic(rateLimitElastic, false)
+                .setGatewayPool(gatewayPool, false)
+                .setCallbackPool(callbackPool, false);
+        return eventPool != null ? builder.setEventPool(eventPool, false) : builder;
+    }
+
+    /**
+     * Live JVM thread count, for startup reports.
+     */
+    public int getLiveThreadCount() {
+        return threads.getThreadCount();
+    }
+
+    private double getThreadsPerBot() {
+        int bots = botInstancePool.getTotalCount();
+        return bots == 0 ? 0 : (double) threads.getThreadCount() / bots;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (eventPool != null) {
+            eventPool.shutdown();
+        }
+        callbackPool.shutdown();
+        gatewayPool.shutdown();
+        rateLimitScheduler.shutdown();
+        rateLimitElastic.shutdown();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+}
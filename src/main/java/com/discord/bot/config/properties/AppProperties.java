@@ -4,6 +4,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Binds application-level configuration properties from
  * application-{profile}.yml.
@@ -17,6 +20,7 @@ public class AppProperties {
     private Jwt jwt = new Jwt();
     private Features features = new Features();
     private Integration integration = new Integration();
+    private Admin admin = new Admin();
 
     public Jwt getJwt() {
         return jwt;
@@ -42,6 +46,14 @@ public class AppProperties {
         this.integration = integration;
     }
 
+    public Admin getAdmin() {
+        return admin;
+    }
+
+    public void setAdmin(Admin admin) {
+        this.admin = admin;
+    }
+
     /**
      * JWT configuration - secrets come from environment variables.
      */
@@ -136,4 +148,30 @@ public class AppProperties {
             this.vendorUrl = vendorUrl;
         }
     }
+
+    /**
+     * Bot operator access - the API key comes from environment variables.
+     * Admin endpoints and commands are disabled while these are empty.
+     */
+    public static class Admin {
+
+        private String apiKey = "";
+        private List<String> userIds = new ArrayList<>();
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public List<String> getUserIds() {
+            return userIds;
+        }
+
+        public void setUserIds(List<String> userIds) {
+            this.userIds = userIds;
+        }
+    }
 }
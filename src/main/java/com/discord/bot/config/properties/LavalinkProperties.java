@@ -0,0 +1,87 @@
+package com.discord.bot.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the Lavalink node list (lavalink.nodes) from application.yml.
+ * Every bot's LavalinkClient connects to all of these nodes.
+ */
+@Component
+@Validated
+@ConfigurationProperties(prefix = "lavalink")
+public class LavalinkProperties {
+
+    private List<Node> nodes = new ArrayList<>();
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * What a node is used for. Searches ({@code loadItem}) go to SEARCH and
+     * BOTH nodes; players are only created on PLAYBACK and BOTH nodes.
+     */
+    public enum Role {
+        SEARCH, PLAYBACK, BOTH;
+
+        public boolean searches() {
+            return this != PLAYBACK;
+        }
+
+        public boolean plays() {
+            return this != SEARCH;
+        }
+    }
+
+    /**
+     * One Lavalink server.
+     */
+    public static class Node {
+
+        private String name = "main-node";
+        private String uri;
+        private String password;
+        private Role role = Role.BOTH;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String uri) {
+            this.uri = uri;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+
+        public void setRole(Role role) {
+            this.role = role;
+        }
+    }
+}
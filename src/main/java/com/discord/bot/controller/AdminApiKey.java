@@ -0,0 +1,30 @@
+package com.discord.bot.controller;
+
+import com.discord.bot.config.properties.AppProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Checks the X-Admin-Key header of the admin endpoints against
+ * app.admin.api-key. Every request is refused while no key is configured.
+ */
+@Component
+class AdminApiKey {
+
+    private final AppProperties appProperties;
+
+    AdminApiKey(AppProperties appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    boolean matches(String apiKey) {
+        String expected = appProperties.getAdmin().getApiKey();
+        if (expected == null || expected.isBlank() || apiKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                apiKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package com.discord.bot.controller;
+
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.service.BotPoolService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Operator endpoints for scaling the bot pool at runtime.
+ * Requests must carry the configured app.admin.api-key in the X-Admin-Key
+ * header; the endpoints are disabled while no key is configured.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/bots")
+public class BotAdminController {
+
+    private final AdminApiKey adminApiKey;
+    private final BotPoolService botPoolService;
+
+    public BotAdminController(AdminApiKey adminApiKey, BotPoolService botPoolService) {
+        this.adminApiKey = adminApiKey;
+        this.botPoolService = botPoolService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> list(@RequestHeader(value = "X-Admin-Key", required = false) String apiKey) {
+        if (!adminApiKey.matches(apiKey)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(botPoolService.describeBots());
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> add(@RequestHeader(value = "X-Admin-Key", required = false) String apiKey,
+            @RequestBody Map<String, String> body) {
+        if (!adminApiKey.matches(apiKey)) {
+            return forbidden();
+        }
+        try {
+            BotInstance bot = botPoolService.addBot(body.get("token"));
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                    "index", bot.getIndex(),
+                    "name", bot.getBotName(),
+                    "id", bot.getBotId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{index}")
+    public ResponseEntity<Object> retire(@RequestHeader(value = "X-Admin-Key", required = false) String apiKey,
+            @PathVariable int index) {
+        if (!adminApiKey.matches(apiKey)) {
+            return forbidden();
+        }
+        BotInstance bot = botPoolService.retireBot(index);
+        if (bot == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No secondary bot with index " + index));
+        }
+        return ResponseEntity.accepted().body(Map.of(
+                "index", bot.getIndex(),
+                "name", bot.getBotName(),
+                "activeSessions", bot.getConnectedCount()));
+    }
+
+    private ResponseEntity<Object> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid admin key"));
+    }
+}
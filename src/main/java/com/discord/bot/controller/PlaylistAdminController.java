@@ -0,0 +1,71 @@
+package com.discord.bot.controller;
+
+import com.discord.bot.music.service.PlaylistTransferService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Backup and migration of a user's playlists, without Discord's upload size
+ * limit. The export is streamed straight from the database to the response;
+ * the import reads the request body as it arrives. Both require the
+ * X-Admin-Key header to match app.admin.api-key.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/playlists")
+public class PlaylistAdminController {
+
+    private final AdminApiKey adminApiKey;
+    private final PlaylistTransferService playlistTransferService;
+
+    public PlaylistAdminController(AdminApiKey adminApiKey, PlaylistTransferService playlistTransferService) {
+        this.adminApiKey = adminApiKey;
+        this.playlistTransferService = playlistTransferService;
+    }
+
+    @GetMapping("/{userId}/export")
+    public ResponseEntity<Object> export(@RequestHeader(value = "X-Admin-Key", required = false) String apiKey,
+            @PathVariable String userId, @RequestParam(required = false) String name) {
+        if (!adminApiKey.matches(apiKey)) {
+            return forbidden();
+        }
+        StreamingResponseBody body = out -> playlistTransferService.exportPlaylists(userId, name, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("playlists.jsonl.gz").build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/{userId}/import")
+    public ResponseEntity<Object> importPlaylists(
+            @RequestHeader(value = "X-Admin-Key", required = false) String apiKey,
+            @PathVariable String userId, InputStream body) throws IOException {
+        if (!adminApiKey.matches(apiKey)) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(playlistTransferService.importPlaylists(userId, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<Object> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid admin key"));
+    }
+}
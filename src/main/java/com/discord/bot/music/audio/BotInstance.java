@@ -1,18 +1,28 @@
 package com.discord.bot.music.audio;
 
 import dev.arbjerg.lavalink.client.LavalinkClient;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
 
 /**
  * Represents a single bot instance (JDA + LavalinkClient pair).
  * Each instance can connect to one voice channel per guild.
+ * A bot runs either on a single JDA session or on a ShardManager; callers
+ * needing a session use {@link #getJdaForGuild(long)}.
  */
 public class BotInstance {
 
+    /** Single gateway session, or null when sharded. */
     private final JDA jda;
+    /** Shard manager, or null when running on a single session. */
+    private final ShardManager shardManager;
     private final LavalinkClient lavalinkClient;
     private final boolean primary;
     private final int index;
@@ -23,15 +33,76 @@ public class BotInstance {
      */
     private final Map<Long, Long> connectedChannels = new ConcurrentHashMap<>();
 
+    /**
+     * IDs of the guilds this bot is a member of, kept in sync by
+     * {@link GuildMembershipTracker}. Guarded by itself.
+     */
+    private final TLongSet memberGuilds = new TLongHashSet();
+
+    /**
+     * Set when the bot is being retired: it keeps its current sessions but
+     * takes no new channels, and shuts down once the last one is released.
+     */
+    private volatile boolean draining;
+
+    /** Told about guilds this bot is invited to; set by the pool on registration. */
+    private volatile LongConsumer guildJoinListener = guildId -> {
+    };
+
+    /** When the last session of this bot ended (or it came online). */
+    private volatile long idleSinceMillis = System.currentTimeMillis();
+
     public BotInstance(JDA jda, LavalinkClient lavalinkClient, boolean primary, int index) {
         this.jda = jda;
+        this.shardManager = null;
         this.lavalinkClient = lavalinkClient;
         this.primary = primary;
         this.index = index;
+
+        synchronized (memberGuilds) {
+            for (Guild guild : jda.getGuildCache()) {
+                memberGuilds.add(guild.getIdLong());
+            }
+        }
+        jda.addEventListener(new GuildMembershipTracker(this));
     }
 
-    public JDA getJda() {
-        return jda;
+    public BotInstance(ShardManager shardManager, LavalinkClient lavalinkClient, boolean primary, int index) {
+        this.jda = null;
+        this.shardManager = shardManager;
+        this.lavalinkClient = lavalinkClient;
+        this.primary = primary;
+        this.index = index;
+
+        synchronized (memberGuilds) {
+            for (Guild guild : shardManager.getGuildCache()) {
+                memberGuilds.add(guild.getIdLong());
+            }
+        }
+        shardManager.addEventListener(new GuildMembershipTracker(this));
+    }
+
+    /**
+     * Get the gateway session responsible for a guild: the single JDA, or
+     * the shard the guild is routed to.
+     */
+    public JDA getJdaForGuild(long guildId) {
+        if (jda != null) {
+            return jda;
+        }
+        int shardId = (int) ((guildId >>> 22) % shardManager.getShardsTotal());
+        return shardManager.getShardById(shardId);
+    }
+
+    /**
+     * Get the shard manager, or null if this bot runs on a single session.
+     */
+    public ShardManager getShardManager() {
+        return shardManager;
+    }
+
+    public boolean isSharded() {
+        return shardManager != null;
     }
 
     public LavalinkClient getLavalinkClient() {
@@ -47,18 +118,82 @@ public class BotInstance {
     }
 
     public String getBotName() {
-        return jda.getSelfUser().getName();
+        return anySession().getSelfUser().getName();
     }
 
     public long getBotId() {
-        return jda.getSelfUser().getIdLong();
+        return anySession().getSelfUser().getIdLong();
+    }
+
+    private JDA anySession() {
+        return jda != null ? jda : shardManager.getShards().get(0);
     }
 
     /**
      * Check if this bot is available to join a channel in the given guild.
+     * Bots that were never invited to the guild are never available.
      */
     public boolean isAvailableForGuild(long guildId) {
-        return !connectedChannels.containsKey(guildId);
+        return !draining && isMemberOf(guildId) && !connectedChannels.containsKey(guildId);
+    }
+
+    /**
+     * Check if this bot has joined the given guild.
+     */
+    public boolean isMemberOf(long guildId) {
+        synchronized (memberGuilds) {
+            return memberGuilds.contains(guildId);
+        }
+    }
+
+    void addGuild(long guildId) {
+        synchronized (memberGuilds) {
+            memberGuilds.add(guildId);
+        }
+    }
+
+    /**
+     * Record a guild this bot was just invited to and tell the pool, which
+     * may have channels waiting for a bot there.
+     */
+    void joinGuild(long guildId) {
+        addGuild(guildId);
+        guildJoinListener.accept(guildId);
+    }
+
+    void setGuildJoinListener(LongConsumer guildJoinListener) {
+        this.guildJoinListener = guildJoinListener;
+    }
+
+    void removeGuild(long guildId) {
+        synchronized (memberGuilds) {
+            memberGuilds.remove(guildId);
+        }
+    }
+
+    /**
+     * Number of guilds this bot is a member of.
+     */
+    public int getGuildCount() {
+        synchronized (memberGuilds) {
+            return memberGuilds.size();
+        }
+    }
+
+    /**
+     * Number of users held in this bot's JDA cache.
+     */
+    public long getCachedUserCount() {
+        return jda != null ? jda.getUserCache().size() : shardManager.getUserCache().size();
+    }
+
+    /**
+     * Copy of the IDs of the guilds this bot is a member of.
+     */
+    public long[] snapshotGuilds() {
+        synchronized (memberGuilds) {
+            return memberGuilds.toArray();
+        }
     }
 
     /**
@@ -81,6 +216,9 @@ public class BotInstance {
      */
     public void markDisconnected(long guildId) {
         connectedChannels.remove(guildId);
+        if (connectedChannels.isEmpty()) {
+            idleSinceMillis = System.currentTimeMillis();
+        }
     }
 
     /**
@@ -91,6 +229,50 @@ public class BotInstance {
         return connectedChannels.get(guildId);
     }
 
+    /**
+     * Copy of the channels this bot is serving, keyed by guild ID.
+     */
+    public Map<Long, Long> getConnectedChannels() {
+        return Map.copyOf(connectedChannels);
+    }
+
+    /**
+     * Number of voice channels this bot is currently serving.
+     */
+    public int getConnectedCount() {
+        return connectedChannels.size();
+    }
+
+    /**
+     * How long this bot has had no session, or 0 while it is serving one.
+     */
+    public long getIdleMillis() {
+        return connectedChannels.isEmpty() ? System.currentTimeMillis() - idleSinceMillis : 0;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Stop accepting new channels; existing sessions keep playing.
+     */
+    public void startDraining() {
+        this.draining = true;
+    }
+
+    /**
+     * Close the Lavalink websocket and log the bot out of Discord.
+     */
+    public void shutdown() {
+        lavalinkClient.close();
+        if (shardManager != null) {
+            shardManager.shutdown();
+        } else {
+            jda.shutdown();
+        }
+    }
+
     /**
      * Get the OAuth2 invite URL for this bot.
      */
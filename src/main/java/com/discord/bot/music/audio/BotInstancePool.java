@@ -1,15 +1,32 @@
 package com.discord.bot.music.audio;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Manages a pool of bot instances for multi-channel music playback.
  * Assigns available bots to voice channels and tracks their state.
+ * When every bot is busy in a guild, requests are parked in a FIFO
+ * per-guild waitlist and handed the next bot released in, registered for or
+ * invited to that guild.
  */
 @Component
 public class BotInstancePool {
@@ -19,45 +36,226 @@ public class BotInstancePool {
     private final List<BotInstance> instances = new CopyOnWriteArrayList<>();
 
     /**
-     * Register a bot instance in the pool.
+     * Bot user ID (== LavalinkClient userId) to instance, for routing
+     * Lavalink events without scanning the pool.
+     */
+    private final Map<Long, BotInstance> instancesById = new ConcurrentHashMap<>();
+
+    /**
+     * Waiting channels per guild, oldest first. Guarded by {@code this}.
+     */
+    private final Map<Long, Deque<PendingPlayback>> waitlists = new HashMap<>();
+    private int waitingCount;
+    private int nextIndex = 1;
+
+    /**
+     * Told the guild ID whenever a guild runs out of free bots. Called under
+     * the pool lock, so it must only hand work off.
+     */
+    private volatile LongConsumer demandListener = guildId -> {
+    };
+
+    /** Told about every bot after it joins the pool. */
+    private final List<Consumer<BotInstance>> registrationListeners = new CopyOnWriteArrayList<>();
+
+    private final int maxWaitingPerGuild;
+    private final Timer waitTimer;
+    private final Counter waitlistRejected;
+
+    public BotInstancePool(MeterRegistry meterRegistry,
+            @Value("${discord.pool.waitlist-max-per-guild:10}") int maxWaitingPerGuild) {
+        this.maxWaitingPerGuild = maxWaitingPerGuild;
+        this.waitTimer = Timer.builder("bot.pool.waitlist.wait")
+                .description("Time a channel spent waiting for a free bot")
+                .register(meterRegistry);
+        this.waitlistRejected = Counter.builder("bot.pool.waitlist.rejected")
+                .description("Requests dropped because the guild waitlist was full")
+                .register(meterRegistry);
+        Gauge.builder("bot.pool.waitlist.depth", this, BotInstancePool::getWaitingCount)
+                .description("Channels currently waiting for a free bot")
+                .register(meterRegistry);
+        Gauge.builder("bot.cache.users", this, pool -> pool.instances.stream()
+                .mapToLong(BotInstance::getCachedUserCount).sum())
+                .description("Users cached across all bots; bounded by the cache profiles in BotInstanceFactory")
+                .register(meterRegistry);
+        Gauge.builder("bot.cache.guilds", this, pool -> pool.instances.stream()
+                .mapToLong(BotInstance::getGuildCount).sum())
+                .description("Guild memberships across all bots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a bot instance in the pool. A bot added while channels are
+     * waiting is immediately handed to the longest-waiting channel of each
+     * guild it is a member of.
      */
     public void register(BotInstance instance) {
-        instances.add(instance);
-        log.info("Registered bot instance #{} ({}): {} [{}]",
-                instance.getIndex(),
-                instance.isPrimary() ? "primary" : "secondary",
-                instance.getBotName(),
-                instance.getBotId());
+        List<PendingPlayback> handedOver = new ArrayList<>();
+
+        synchronized (this) {
+            instances.add(instance);
+            instancesById.put(instance.getBotId(), instance);
+            instance.setGuildJoinListener(guildId -> serveWaiting(instance, guildId));
+            log.info("Registered bot instance #{} ({}): {} [{}]",
+                    instance.getIndex(),
+                    instance.isPrimary() ? "primary" : "secondary",
+                    instance.getBotName(),
+                    instance.getBotId());
+
+            for (Long guildId : List.copyOf(waitlists.keySet())) {
+                if (!instance.isMemberOf(guildId)) {
+                    continue;
+                }
+                PendingPlayback next = pollWaiting(guildId);
+                if (next != null) {
+                    instance.markConnected(guildId, next.getChannelId());
+                    handedOver.add(next);
+                }
+            }
+        }
+
+        for (PendingPlayback next : handedOver) {
+            handOver(instance, next);
+        }
+
+        for (Consumer<BotInstance> listener : registrationListeners) {
+            listener.accept(instance);
+        }
+    }
+
+    /**
+     * Hand a bot that was just invited to a guild to the longest-waiting
+     * channel there, if any.
+     */
+    private void serveWaiting(BotInstance bot, long guildId) {
+        PendingPlayback next;
+        synchronized (this) {
+            if (instancesById.get(bot.getBotId()) != bot || !bot.isAvailableForGuild(guildId)) {
+                return;
+            }
+            next = pollWaiting(guildId);
+            if (next == null) {
+                return;
+            }
+            bot.markConnected(guildId, next.getChannelId());
+        }
+        handOver(bot, next);
+    }
+
+    /**
+     * Add a callback run after each bot is registered, on the registering
+     * thread.
+     */
+    public void addRegistrationListener(Consumer<BotInstance> listener) {
+        registrationListeners.add(listener);
+    }
+
+    /**
+     * Assign a specific bot to a channel, e.g. when restoring a session it
+     * served before a restart.
+     *
+     * @return false if the bot is not free in that guild or another bot
+     *         already serves the channel
+     */
+    public synchronized boolean assign(BotInstance bot, long guildId, long channelId) {
+        if (!bot.isAvailableForGuild(guildId) || getBotInChannel(guildId, channelId) != null) {
+            return false;
+        }
+        bot.markConnected(guildId, channelId);
+        log.info("Assigned bot #{} ({}) to guild {} channel {}",
+                bot.getIndex(), bot.getBotName(), guildId, channelId);
+        return true;
     }
 
     /**
      * Find a bot already assigned to the given channel, or assign a free one.
      *
+     * Channels already waiting in the guild are served first: free bots go to
+     * them in FIFO order, and a newcomer only gets a bot that is left over,
+     * so it cannot jump the waitlist.
+     *
      * @return BotInstance or null if no bots are available
      */
     public BotInstance findOrAssignBot(long guildId, long channelId) {
-        // 1. Check if a bot is already in this channel
-        for (BotInstance bot : instances) {
-            if (bot.isInChannel(guildId, channelId)) {
-                return bot;
+        List<BotInstance> handedOver = new ArrayList<>();
+        List<PendingPlayback> served = new ArrayList<>();
+        BotInstance assigned = null;
+
+        synchronized (this) {
+            // 1. Waiting channels take any bot that is free for them
+            for (BotInstance bot : instances) {
+                if (!waitlists.containsKey(guildId)) {
+                    break;
+                }
+                if (bot.isAvailableForGuild(guildId)) {
+                    PendingPlayback next = pollWaiting(guildId);
+                    bot.markConnected(guildId, next.getChannelId());
+                    handedOver.add(bot);
+                    served.add(next);
+                }
+            }
+
+            // 2. Check if a bot is already in this channel
+            for (BotInstance bot : instances) {
+                if (bot.isInChannel(guildId, channelId)) {
+                    assigned = bot;
+                    break;
+                }
+            }
+
+            // 3. Find a free bot for this guild, unless others are still queued ahead
+            if (assigned == null) {
+                Deque<PendingPlayback> waiting = waitlists.get(guildId);
+                if (waiting != null) {
+                    log.info("Guild {} has {} channel(s) waiting, not assigning channel {} ahead of them",
+                            guildId, waiting.size(), channelId);
+                    demandListener.accept(guildId);
+                } else {
+                    assigned = assignFree(guildId, channelId);
+                }
             }
         }
 
-        // 2. Find a free bot for this guild
+        for (int i = 0; i < served.size(); i++) {
+            handOver(handedOver.get(i), served.get(i));
+        }
+        return assigned;
+    }
+
+    private BotInstance assignFree(long guildId, long channelId) {
         for (BotInstance bot : instances) {
             if (bot.isAvailableForGuild(guildId)) {
                 bot.markConnected(guildId, channelId);
                 log.info("Assigned bot #{} ({}) to guild {} channel {}",
                         bot.getIndex(), bot.getBotName(), guildId, channelId);
+                if (getAvailableCount(guildId) == 0) {
+                    // That was the guild's last free bot
+                    demandListener.accept(guildId);
+                }
                 return bot;
             }
         }
 
-        // 3. No bots available
+        // No bots available
         log.warn("No available bot instances for guild {} channel {}", guildId, channelId);
+        demandListener.accept(guildId);
         return null;
     }
 
+    /**
+     * Set the callback told when a guild runs out of free bots.
+     */
+    public void setDemandListener(LongConsumer demandListener) {
+        this.demandListener = demandListener;
+    }
+
+    /**
+     * Get a bot by its Discord user ID, which is also its LavalinkClient userId.
+     */
+    public BotInstance getBotById(long botId) {
+        return instancesById.get(botId);
+    }
+
     /**
      * Get the bot that is assigned to a specific channel.
      */
@@ -71,17 +269,202 @@ public class BotInstancePool {
     }
 
     /**
-     * Release a bot from a guild channel.
+     * Release a bot from a guild channel. If other channels of the guild are
+     * waiting, the bot is handed straight to the longest-waiting one.
      */
     public void releaseBot(long guildId, long channelId) {
-        for (BotInstance bot : instances) {
-            if (bot.isInChannel(guildId, channelId)) {
-                bot.markDisconnected(guildId);
-                log.info("Released bot #{} ({}) from guild {} channel {}",
-                        bot.getIndex(), bot.getBotName(), guildId, channelId);
-                return;
+        BotInstance handedOver = null;
+        PendingPlayback next = null;
+        BotInstance drained = null;
+
+        synchronized (this) {
+            for (BotInstance bot : instances) {
+                if (bot.isInChannel(guildId, channelId)) {
+                    bot.markDisconnected(guildId);
+                    log.info("Released bot #{} ({}) from guild {} channel {}",
+                            bot.getIndex(), bot.getBotName(), guildId, channelId);
+
+                    if (bot.isDraining()) {
+                        if (bot.getConnectedCount() == 0) {
+                            unregister(bot);
+                            drained = bot;
+                        }
+                    } else {
+                        next = pollWaiting(guildId);
+                        if (next != null) {
+                            bot.markConnected(guildId, next.getChannelId());
+                            handedOver = bot;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (drained != null) {
+            shutdownRetired(drained);
+        }
+
+        if (next != null) {
+            handOver(handedOver, next);
+        }
+    }
+
+    /**
+     * Retire a bot: it stops taking new channels and is shut down and removed
+     * from the pool as soon as its last session ends. The primary bot cannot
+     * be retired.
+     *
+     * @return the retired bot, or null if no secondary bot has this index
+     */
+    public BotInstance retire(int index) {
+        BotInstance idle = null;
+        BotInstance target = null;
+
+        synchronized (this) {
+            for (BotInstance bot : instances) {
+                if (bot.getIndex() == index && !bot.isPrimary()) {
+                    target = bot;
+                    break;
+                }
+            }
+            if (target == null) {
+                return null;
+            }
+            target.startDraining();
+            log.info("Draining bot #{} ({}) with {} active session(s)",
+                    target.getIndex(), target.getBotName(), target.getConnectedCount());
+            if (target.getConnectedCount() == 0) {
+                unregister(target);
+                idle = target;
+            }
+        }
+
+        if (idle != null) {
+            shutdownRetired(idle);
+        }
+        return target;
+    }
+
+    /**
+     * Reserve the next secondary bot index. Indexes are reserved before login
+     * so bots logging in concurrently never share one; index 0 is the primary.
+     */
+    public synchronized int reserveIndex() {
+        return nextIndex++;
+    }
+
+    /**
+     * Check whether a bot with this Discord user ID is already registered.
+     */
+    public boolean containsBot(long botId) {
+        return instancesById.containsKey(botId);
+    }
+
+    private void unregister(BotInstance bot) {
+        instances.remove(bot);
+        instancesById.remove(bot.getBotId());
+    }
+
+    private void handOver(BotInstance bot, PendingPlayback next) {
+        long waitedNanos = System.nanoTime() - next.getEnqueuedAtNanos();
+        waitTimer.record(Duration.ofNanos(waitedNanos));
+        log.info("Handed bot #{} ({}) to waiting channel {} in guild {} after {} ms",
+                bot.getIndex(), bot.getBotName(), next.getChannelId(), next.getGuildId(),
+                waitedNanos / 1_000_000);
+        try {
+            next.assign(bot);
+        } catch (Exception e) {
+            log.error("Failed to start waiting playback in guild {} channel {}: {}",
+                    next.getGuildId(), next.getChannelId(), e.getMessage(), e);
+        }
+    }
+
+    private void shutdownRetired(BotInstance bot) {
+        log.info("Bot #{} ({}) drained, shutting down", bot.getIndex(), bot.getBotName());
+        try {
+            bot.shutdown();
+        } catch (Exception e) {
+            log.error("Error shutting down retired bot #{}: {}", bot.getIndex(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Park a request until a bot is released in its guild. A second request
+     * for a channel that is already waiting is merged into the existing entry.
+     *
+     * @return 1-based position in the guild waitlist, or -1 if the waitlist is
+     *         full
+     */
+    public synchronized int enqueueWaiting(PendingPlayback pending) {
+        Deque<PendingPlayback> waiting = waitlists.computeIfAbsent(pending.getGuildId(), k -> new ArrayDeque<>());
+
+        int position = 1;
+        for (PendingPlayback existing : waiting) {
+            if (existing.getChannelId() == pending.getChannelId()) {
+                existing.addTracks(pending.getTracks());
+                return position;
+            }
+            position++;
+        }
+
+        if (waiting.size() >= maxWaitingPerGuild) {
+            waitlistRejected.increment();
+            return -1;
+        }
+
+        waiting.addLast(pending);
+        waitingCount++;
+        log.info("Channel {} in guild {} is waiting for a free bot (position {})",
+                pending.getChannelId(), pending.getGuildId(), waiting.size());
+        return waiting.size();
+    }
+
+    /**
+     * Drop a waiting request, e.g. when its channel has emptied.
+     */
+    public synchronized boolean cancelWaiting(long guildId, long channelId) {
+        Deque<PendingPlayback> waiting = waitlists.get(guildId);
+        if (waiting == null) {
+            return false;
+        }
+        boolean removed = waiting.removeIf(p -> p.getChannelId() == channelId);
+        if (removed) {
+            waitingCount--;
+            if (waiting.isEmpty()) {
+                waitlists.remove(guildId);
             }
         }
+        return removed;
+    }
+
+    /**
+     * Total number of channels waiting for a bot across all guilds.
+     */
+    public synchronized int getWaitingCount() {
+        return waitingCount;
+    }
+
+    /**
+     * Guilds that currently have channels waiting for a bot.
+     */
+    public synchronized List<Long> getWaitingGuildIds() {
+        return List.copyOf(waitlists.keySet());
+    }
+
+    private PendingPlayback pollWaiting(long guildId) {
+        Deque<PendingPlayback> waiting = waitlists.get(guildId);
+        if (waiting == null) {
+            return null;
+        }
+        PendingPlayback next = waiting.pollFirst();
+        if (waiting.isEmpty()) {
+            waitlists.remove(guildId);
+        }
+        if (next != null) {
+            waitingCount--;
+        }
+        return next;
     }
 
     /**
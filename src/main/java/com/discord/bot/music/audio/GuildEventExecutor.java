@@ -0,0 +1,192 @@
+package com.discord.bot.music.audio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Lavalink event handling off the client's websocket thread.
+ * Work is partitioned by guild: every guild maps to one single-threaded
+ * partition, so events of a guild run in order while different guilds run in
+ * parallel. Each partition has a bounded mailbox.
+ *
+ * Tasks are never dropped and {@link #execute} never blocks. When a mailbox
+ * is full, the task goes to its guild's backlog on the same partition, and
+ * so do the guild's later tasks until the backlog is empty again. The
+ * partition thread moves backlogged tasks into the mailbox as it frees up, so
+ * a guild's tasks still run one at a time and in the order they arrived.
+ */
+@Component
+public class GuildEventExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GuildEventExecutor.class);
+
+    private final Partition[] partitions;
+    private final Counter deferred;
+
+    public GuildEventExecutor(MeterRegistry meterRegistry,
+            @Value("${lavalink.events.partitions:0}") int partitionCount,
+            @Value("${lavalink.events.mailbox-capacity:1000}") int mailboxCapacity) {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i, mailboxCapacity);
+        }
+
+        this.deferred = Counter.builder("lavalink.event.mailbox.overflow")
+                .description("Lavalink events that found their guild partition mailbox full and were backlogged")
+                .register(meterRegistry);
+        Gauge.builder("lavalink.event.mailbox.depth", this, GuildEventExecutor::getQueuedCount)
+                .description("Lavalink events waiting in guild partition mailboxes")
+                .register(meterRegistry);
+        Gauge.builder("lavalink.event.backlog.depth", this, GuildEventExecutor::getBackloggedCount)
+                .description("Lavalink events waiting in guild backlogs for mailbox space")
+                .register(meterRegistry);
+
+        log.info("Guild event executor started with {} partition(s), mailbox capacity {}",
+                count, mailboxCapacity);
+    }
+
+    /**
+     * Queue a task behind earlier tasks of the same guild. Never blocks and
+     * never runs the task on the calling thread.
+     */
+    public void execute(long guildId, Runnable task) {
+        Partition partition = partitions[partitionOf(guildId)];
+        if (!partition.submit(guildId, guard(guildId, task))) {
+            log.debug("Event executor shut down, ignoring event for guild {}", guildId);
+        }
+    }
+
+    private static Runnable guard(long guildId, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Error handling event for guild {}: {}", guildId, e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * Total number of tasks waiting across all partition mailboxes.
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (Partition partition : partitions) {
+            queued += partition.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Total number of tasks waiting in guild backlogs for mailbox space.
+     */
+    public int getBackloggedCount() {
+        int backlogged = 0;
+        for (Partition partition : partitions) {
+            backlogged += partition.backlogged();
+        }
+        return backlogged;
+    }
+
+    private int partitionOf(long guildId) {
+        return (int) Math.floorMod(guildId ^ (guildId >>> 32), (long) partitions.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Partition partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    /**
+     * Single-threaded executor with per-guild backlogs for tasks that found
+     * the mailbox full. Backlogs are only touched under the partition's lock.
+     */
+    private final class Partition extends ThreadPoolExecutor {
+
+        private final int index;
+        /** Guilds in the order their backlog started, so none is starved. */
+        private final Map<Long, ArrayDeque<Runnable>> backlogs = new LinkedHashMap<>();
+        private int backlogged;
+
+        Partition(int index, int mailboxCapacity) {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(mailboxCapacity),
+                    new CustomizableThreadFactory("guild-events-" + index + "-"), new AbortPolicy());
+            this.index = index;
+            // Backlogged tasks are offered straight to the queue, which needs a live worker
+            prestartAllCoreThreads();
+        }
+
+        /**
+         * @return false if the partition is shut down
+         */
+        synchronized boolean submit(long guildId, Runnable task) {
+            if (isShutdown()) {
+                return false;
+            }
+            ArrayDeque<Runnable> backlog = backlogs.get(guildId);
+            if (backlog == null) {
+                try {
+                    execute(task);
+                    return true;
+                } catch (RejectedExecutionException e) {
+                    backlog = new ArrayDeque<>();
+                    backlogs.put(guildId, backlog);
+                    log.warn("Event mailbox full for guild {} (partition {}), backlogging its events",
+                            guildId, index);
+                }
+            }
+            // Behind the guild's backlog even if the mailbox has room again
+            backlog.add(task);
+            backlogged++;
+            deferred.increment();
+            return true;
+        }
+
+        synchronized int backlogged() {
+            return backlogged;
+        }
+
+        /**
+         * Runs on the partition thread after every task, so a full mailbox
+         * always has a worker about to make room for the backlog.
+         */
+        @Override
+        protected void afterExecute(Runnable task, Throwable failure) {
+            drainBacklogs();
+        }
+
+        private synchronized void drainBacklogs() {
+            Iterator<ArrayDeque<Runnable>> guilds = backlogs.values().iterator();
+            while (guilds.hasNext()) {
+                ArrayDeque<Runnable> backlog = guilds.next();
+                while (!backlog.isEmpty()) {
+                    if (!getQueue().offer(backlog.peek())) {
+                        return;
+                    }
+                    backlog.poll();
+                    backlogged--;
+                }
+                guilds.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.discord.bot.music.audio;
+
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.guild.UnavailableGuildLeaveEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a {@link BotInstance}'s guild membership set in sync with its JDA
+ * session, so the pool only assigns bots that are actually in the guild.
+ */
+class GuildMembershipTracker extends ListenerAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(GuildMembershipTracker.class);
+
+    private final BotInstance bot;
+
+    GuildMembershipTracker(BotInstance bot) {
+        this.bot = bot;
+    }
+
+    @Override
+    public void onGuildReady(GuildReadyEvent event) {
+        bot.addGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onGuildJoin(GuildJoinEvent event) {
+        log.info("Bot #{} ({}) joined guild {}", bot.getIndex(), bot.getBotName(), event.getGuild().getIdLong());
+        bot.joinGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onGuildLeave(GuildLeaveEvent event) {
+        bot.removeGuild(event.getGuild().getIdLong());
+        log.info("Bot #{} ({}) left guild {}", bot.getIndex(), bot.getBotName(), event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onUnavailableGuildLeave(UnavailableGuildLeaveEvent event) {
+        bot.removeGuild(event.getGuildIdLong());
+    }
+}
@@ -1,10 +1,12 @@
 package com.discord.bot.music.audio;
 
 import dev.arbjerg.lavalink.client.Link;
+import dev.arbjerg.lavalink.client.player.LavalinkLoadResult;
 import dev.arbjerg.lavalink.client.player.Track;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -19,9 +21,14 @@ public class GuildMusicManager {
 
     private final ConcurrentHashMap<String, com.discord.bot.music.model.GuildMusicQueue> queues = new ConcurrentHashMap<>();
     private final BotInstancePool botInstancePool;
+    private final PlayerStateMirror playerStateMirror;
+    private final LavalinkNodeRouter nodeRouter;
 
-    public GuildMusicManager(BotInstancePool botInstancePool) {
+    public GuildMusicManager(BotInstancePool botInstancePool, PlayerStateMirror playerStateMirror,
+            LavalinkNodeRouter nodeRouter) {
         this.botInstancePool = botInstancePool;
+        this.playerStateMirror = playerStateMirror;
+        this.nodeRouter = nodeRouter;
     }
 
     /**
@@ -50,6 +57,14 @@ public class GuildMusicManager {
         return bot.getLavalinkClient().getOrCreateLink(guildId);
     }
 
+    /**
+     * Resolve a track, URL or search query through one of the bot's search
+     * nodes, keeping searches off the nodes that play audio.
+     */
+    public Mono<LavalinkLoadResult> loadItem(BotInstance bot, String identifier) {
+        return nodeRouter.loadItem(bot.getLavalinkClient(), identifier);
+    }
+
     /**
      * Get the BotInstance assigned to a channel.
      */
@@ -74,6 +89,7 @@ public class GuildMusicManager {
             queue.clear();
             queue.setCurrentTrack(null);
         }
+        playerStateMirror.remove(guildId, channelId);
 
         BotInstance bot = botInstancePool.getBotInChannel(guildId, channelId);
         if (bot != null) {
@@ -100,6 +116,13 @@ public class GuildMusicManager {
                 .build();
     }
 
+    /**
+     * Get the locally mirrored player state of a channel.
+     */
+    public PlayerStateMirror.Snapshot getPlayerState(long guildId, long channelId) {
+        return playerStateMirror.get(guildId, channelId);
+    }
+
     /**
      * Get the bot pool.
      */
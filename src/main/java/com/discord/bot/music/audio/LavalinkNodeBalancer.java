@@ -0,0 +1,108 @@
+package com.discord.bot.music.audio;
+
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.loadbalancing.ILoadBalancer;
+import dev.arbjerg.lavalink.client.loadbalancing.VoiceRegion;
+import dev.arbjerg.lavalink.client.loadbalancing.builtin.IPenaltyProvider;
+import dev.arbjerg.lavalink.protocol.v4.Stats;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Picks the least-loaded available node for each new link, from the stats
+ * every node pushes about once a minute. The load score follows Lavalink's
+ * own penalty formula:
+ * <ul>
+ * <li>one point per playing player</li>
+ * <li>exponential in system CPU load</li>
+ * <li>exponential in deficit and nulled frames per minute, so a node that is
+ * already stuttering stops taking new players</li>
+ * </ul>
+ * Only playback nodes are considered while any of them is available.
+ */
+public class LavalinkNodeBalancer implements ILoadBalancer {
+
+    /** Frames a healthy player sends per minute (one every 20 ms). */
+    private static final double FRAMES_PER_MINUTE = 3000;
+
+    private final LavalinkClient client;
+    private final Predicate<LavalinkNode> playbackNode;
+    private final List<IPenaltyProvider> penaltyProviders = new CopyOnWriteArrayList<>();
+
+    public LavalinkNodeBalancer(LavalinkClient client, Predicate<LavalinkNode> playbackNode) {
+        this.client = client;
+        this.playbackNode = playbackNode;
+    }
+
+    @Override
+    public void addPenaltyProvider(IPenaltyProvider penaltyProvider) {
+        penaltyProviders.add(penaltyProvider);
+    }
+
+    @Override
+    public void removePenaltyProvider(IPenaltyProvider penaltyProvider) {
+        penaltyProviders.remove(penaltyProvider);
+    }
+
+    @Override
+    public LavalinkNode selectNode(VoiceRegion region, Long guildId) {
+        LavalinkNode best = selectNode(region, playbackNode);
+        if (best == null) {
+            // Every playback node is down: better a search node than silence
+            best = selectNode(region, node -> true);
+        }
+        if (best == null) {
+            throw new IllegalStateException("No Lavalink node is available");
+        }
+        return best;
+    }
+
+    private LavalinkNode selectNode(VoiceRegion region, Predicate<LavalinkNode> eligible) {
+        LavalinkNode best = null;
+        double bestPenalty = Double.MAX_VALUE;
+        for (LavalinkNode node : client.getNodes()) {
+            if (!node.getAvailable() || !eligible.test(node)) {
+                continue;
+            }
+            double penalty = penalty(node);
+            for (IPenaltyProvider provider : penaltyProviders) {
+                penalty += provider.getPenalty(node, region);
+            }
+            if (penalty < bestPenalty) {
+                best = node;
+                bestPenalty = penalty;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Load score of a node; lower is better. Nodes that have not reported
+     * stats yet score 0.
+     */
+    public static double penalty(LavalinkNode node) {
+        Stats stats = node.getStats();
+        if (stats == null) {
+            return 0;
+        }
+
+        double playerPenalty = stats.getPlayingPlayers();
+        double cpuPenalty = stats.getCpu() != null
+                ? Math.pow(1.05, 100 * stats.getCpu().getSystemLoad()) * 10 - 10
+                : 0;
+
+        double framePenalty = 0;
+        Stats.FrameStats frames = stats.getFrameStats();
+        if (frames != null) {
+            double deficit = Math.max(frames.getDeficit(), 0);
+            double nulled = Math.max(frames.getNulled(), 0);
+            framePenalty = Math.pow(1.03, 500 * (deficit / FRAMES_PER_MINUTE)) * 600 - 600
+                    + (Math.pow(1.03, 500 * (nulled / FRAMES_PER_MINUTE)) * 300 - 300) * 2;
+        }
+
+        return playerPenalty + cpuPenalty + framePenalty;
+    }
+}
@@ -0,0 +1,165 @@
+package com.discord.bot.music.audio;
+
+import com.discord.bot.config.properties.LavalinkProperties;
+import com.discord.bot.config.properties.LavalinkProperties.Role;
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.player.LavalinkLoadResult;
+import dev.arbjerg.lavalink.client.player.Track;
+import dev.arbjerg.lavalink.protocol.v4.Stats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies lavalink.nodes[*].role: track searches are sent to search nodes
+ * and players are only placed on playback nodes (see
+ * {@link LavalinkNodeBalancer}), so a burst of playlist imports cannot
+ * starve live audio of CPU. Nodes default to BOTH.
+ */
+@Component
+public class LavalinkNodeRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(LavalinkNodeRouter.class);
+
+    /** Configured node name to role. */
+    private final Map<String, Role> roles = new HashMap<>();
+    private final Map<Role, Timer> loadTimers = new EnumMap<>(Role.class);
+    private final BotInstancePool botInstancePool;
+
+    public LavalinkNodeRouter(LavalinkProperties lavalinkProperties, BotInstancePool botInstancePool,
+            MeterRegistry meterRegistry) {
+        this.botInstancePool = botInstancePool;
+        for (LavalinkProperties.Node node : lavalinkProperties.getNodes()) {
+            roles.put(node.getName(), node.getRole());
+        }
+
+        for (Role role : Role.values()) {
+            String tag = role.name().toLowerCase();
+            loadTimers.put(role, Timer.builder("lavalink.load.latency")
+                    .description("Time for a Lavalink node to answer a loadItem request")
+                    .tag("role", tag)
+                    .register(meterRegistry));
+            Gauge.builder("lavalink.node.frame_deficit", this, router -> router.sumStats(role, true))
+                    .description("Missing plus nulled audio frames per minute on nodes of this role")
+                    .tag("role", tag)
+                    .register(meterRegistry);
+            Gauge.builder("lavalink.node.playing_players", this, router -> router.sumStats(role, false))
+                    .description("Playing players on nodes of this role")
+                    .tag("role", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Role of a client's node. Client node names are the configured name
+     * suffixed with "-{botUserId}".
+     */
+    public Role roleOf(LavalinkNode node) {
+        Role role = roles.get(configuredName(node));
+        return role != null ? role : Role.BOTH;
+    }
+
+    /**
+     * Configured name (lavalink.nodes[*].name) of a client's node.
+     */
+    public static String configuredName(LavalinkNode node) {
+        String name = node.getName();
+        int suffix = name.lastIndexOf('-');
+        return suffix > 0 ? name.substring(0, suffix) : name;
+    }
+
+    public boolean isPlaybackNode(LavalinkNode node) {
+        return roleOf(node).plays();
+    }
+
+    /**
+     * Resolve a track, URL or search query on the least-loaded available
+     * search node of the client. Falls back to any available node when every
+     * search node is down. With no node available at all the Mono fails
+     * with IllegalStateException, like any other load error.
+     */
+    public Mono<LavalinkLoadResult> loadItem(LavalinkClient client, String identifier) {
+        return Mono.defer(() -> {
+            LavalinkNode node = selectSearchNode(client);
+            Timer timer = loadTimers.get(roleOf(node));
+            long startedAt = System.nanoTime();
+            return node.loadItem(identifier)
+                    .doFinally(signal -> timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Decode encoded tracks on a search node.
+     */
+    public Mono<List<Track>> decodeTracks(LavalinkClient client, List<String> encoded) {
+        return Mono.defer(() -> selectSearchNode(client).decodeTracks(encoded));
+    }
+
+    private LavalinkNode selectSearchNode(LavalinkClient client) {
+        LavalinkNode best = null;
+        LavalinkNode fallback = null;
+        double bestPenalty = Double.MAX_VALUE;
+        for (LavalinkNode node : client.getNodes()) {
+            if (!node.getAvailable()) {
+                continue;
+            }
+            if (!roleOf(node).searches()) {
+                fallback = fallback != null ? fallback : node;
+                continue;
+            }
+            double penalty = LavalinkNodeBalancer.penalty(node);
+            if (penalty < bestPenalty) {
+                best = node;
+                bestPenalty = penalty;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        if (fallback != null) {
+            log.warn("No search node available, loading on playback node {}", fallback.getName());
+            return fallback;
+        }
+        throw new IllegalStateException("No Lavalink node is available");
+    }
+
+    /**
+     * Sum a stat over the configured nodes of a role. Every bot connects to
+     * every node, so each server is counted once, through the first bot
+     * whose connection to it has reported stats.
+     */
+    private double sumStats(Role role, boolean frameDeficit) {
+        Map<String, Stats> latest = new HashMap<>();
+        for (BotInstance bot : botInstancePool.getAllInstances()) {
+            for (LavalinkNode node : bot.getLavalinkClient().getNodes()) {
+                Stats stats = node.getStats();
+                if (stats == null || roleOf(node) != role) {
+                    continue;
+                }
+                latest.putIfAbsent(configuredName(node), stats);
+            }
+        }
+
+        double total = 0;
+        for (Stats stats : latest.values()) {
+            if (!frameDeficit) {
+                total += stats.getPlayingPlayers();
+            } else if (stats.getFrameStats() != null) {
+                total += Math.max(stats.getFrameStats().getDeficit(), 0)
+                        + Math.max(stats.getFrameStats().getNulled(), 0);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,141 @@
+package com.discord.bot.music.audio;
+
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.Link;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how players move off a Lavalink node that went down.
+ *
+ * The moving itself is left to lavalink-client: when a node disconnects, the
+ * client transfers each of its links to a node picked by the load balancer
+ * and recreates the player there from its local state (encoded track,
+ * position, pause state, voice server info). Links stranded because no node
+ * was available are picked up by the client when a node becomes ready again.
+ * Moving links here as well would race with the client and transfer the
+ * same player twice, so this monitor only watches: every check it compares
+ * each playing link's node with the one it had at the previous check, and
+ * counts the moves off unavailable nodes and the players still stuck on one
+ * after the grace period.
+ */
+@Component
+public class NodeFailoverMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeFailoverMonitor.class);
+
+    private final BotInstancePool botInstancePool;
+    private final long graceMs;
+
+    /** Node of every link with a player at the last check. Only touched by the monitor thread. */
+    private Map<Link, LavalinkNode> lastNodes = new IdentityHashMap<>();
+    /** When each node was last seen available. Only touched by the monitor thread. */
+    private final Map<LavalinkNode, Long> lastSeenUp = new IdentityHashMap<>();
+    /** Links already counted as stuck on a down node, so each is counted once. */
+    private final Set<Link> stranded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Counter migrated;
+    private final Counter migrationFailures;
+    private final Timer failoverDuration;
+
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("lavalink-failover-"));
+
+    public NodeFailoverMonitor(BotInstancePool botInstancePool, MeterRegistry meterRegistry,
+            @Value("${lavalink.failover.check-interval-ms:1000}") long checkIntervalMs,
+            @Value("${lavalink.failover.grace-ms:2000}") long graceMs) {
+        this.botInstancePool = botInstancePool;
+        this.graceMs = graceMs;
+
+        this.migrated = Counter.builder("lavalink.player.migrations")
+                .description("Players the client moved to another node after their node went down")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.migrationFailures = Counter.builder("lavalink.player.migrations")
+                .description("Players the client moved to another node after their node went down")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.failoverDuration = Timer.builder("lavalink.node.failover.duration")
+                .description("Time from a node last seen available to its players seen on another node,"
+                        + " at check-interval resolution")
+                .register(meterRegistry);
+
+        monitor.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<LavalinkNode, Integer> movedOff = new IdentityHashMap<>();
+            Map<Link, LavalinkNode> nodes = new IdentityHashMap<>();
+
+            for (BotInstance bot : botInstancePool.getAllInstances()) {
+                LavalinkClient client = bot.getLavalinkClient();
+                for (LavalinkNode node : client.getNodes()) {
+                    if (node.getAvailable()) {
+                        lastSeenUp.put(node, now);
+                    } else {
+                        // Down since startup: count from when it was first seen
+                        lastSeenUp.putIfAbsent(node, now);
+                    }
+                }
+                for (Link link : client.getLinks()) {
+                    if (link.getCachedPlayer() != null) {
+                        observe(link, now, nodes, movedOff);
+                    }
+                }
+            }
+
+            for (Map.Entry<LavalinkNode, Integer> failed : movedOff.entrySet()) {
+                long downFor = now - lastSeenUp.getOrDefault(failed.getKey(), now);
+                failoverDuration.record(downFor, TimeUnit.MILLISECONDS);
+                log.warn("Lavalink node {} is down, client moved {} player(s) within {} ms",
+                        failed.getKey().getName(), failed.getValue(), downFor);
+            }
+            stranded.retainAll(nodes.keySet());
+            lastNodes = nodes;
+        } catch (Exception e) {
+            log.error("Lavalink failover check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void observe(Link link, long now, Map<Link, LavalinkNode> nodes, Map<LavalinkNode, Integer> movedOff) {
+        LavalinkNode node = link.getNode();
+        nodes.put(link, node);
+
+        LavalinkNode previous = lastNodes.get(link);
+        if (previous != null && previous != node && !previous.getAvailable()) {
+            migrated.increment();
+            movedOff.merge(previous, 1, Integer::sum);
+            stranded.remove(link);
+            log.info("Client moved player of guild {} from {} to {}", link.getGuildId(), previous.getName(),
+                    node.getName());
+        } else if (!node.getAvailable() && now - lastSeenUp.getOrDefault(node, now) >= graceMs
+                && stranded.add(link)) {
+            migrationFailures.increment();
+            log.error("Player of guild {} is still on unavailable node {} after {} ms", link.getGuildId(),
+                    node.getName(), graceMs);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        monitor.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.discord.bot.music.audio;
+
+import com.discord.bot.music.model.TrackInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A play request parked in the {@link BotInstancePool} waitlist because every
+ * bot was busy in the guild. Holds the already-resolved tracks so playback can
+ * start immediately once a bot is handed over.
+ */
+public class PendingPlayback {
+
+    private final long guildId;
+    private final long channelId;
+    private final String requesterId;
+    private final List<TrackInfo> tracks = new ArrayList<>();
+    private final BiConsumer<BotInstance, List<TrackInfo>> onAssigned;
+    private final long enqueuedAtNanos = System.nanoTime();
+
+    public PendingPlayback(long guildId, long channelId, String requesterId,
+            List<TrackInfo> tracks, BiConsumer<BotInstance, List<TrackInfo>> onAssigned) {
+        this.guildId = guildId;
+        this.channelId = channelId;
+        this.requesterId = requesterId;
+        this.tracks.addAll(tracks);
+        this.onAssigned = onAssigned;
+    }
+
+    public long getGuildId() {
+        return guildId;
+    }
+
+    public long getChannelId() {
+        return channelId;
+    }
+
+    public String getRequesterId() {
+        return requesterId;
+    }
+
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    /**
+     * Append tracks from a later request for the same channel.
+     */
+    public synchronized void addTracks(List<TrackInfo> more) {
+        tracks.addAll(more);
+    }
+
+    public synchronized List<TrackInfo> getTracks() {
+        return List.copyOf(tracks);
+    }
+
+    /**
+     * Called by the pool once a bot has been assigned to this channel.
+     */
+    void assign(BotInstance bot) {
+        onAssigned.accept(bot, getTracks());
+    }
+}
@@ -0,0 +1,70 @@
+package com.discord.bot.music.audio;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of each channel's Lavalink player state, fed by the
+ * PlayerUpdateEvent stream (every playerUpdateInterval seconds).
+ * Snapshots are immutable and replaced atomically, so readers never lock and
+ * never have to ask Lavalink over REST.
+ */
+@Component
+public class PlayerStateMirror {
+
+    /**
+     * One player update. {@code positionMs} was valid at {@code receivedAtNanos}
+     * (local clock); {@code lavalinkTime} is Lavalink's own timestamp.
+     */
+    public record Snapshot(long positionMs, long lavalinkTime, long receivedAtNanos,
+            boolean connected, long pingMs) {
+
+        /**
+         * Position now, extrapolated from the last update unless paused.
+         */
+        public long interpolatedPositionMs(boolean paused, long durationMs) {
+            if (paused) {
+                return positionMs;
+            }
+            long elapsedMs = (System.nanoTime() - receivedAtNanos) / 1_000_000;
+            long position = positionMs + elapsedMs;
+            return durationMs > 0 ? Math.min(position, durationMs) : position;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private String key(long guildId, long channelId) {
+        return guildId + ":" + channelId;
+    }
+
+    /**
+     * Store a PlayerUpdateEvent's state.
+     */
+    public void update(long guildId, long channelId, long positionMs, long lavalinkTime,
+            boolean connected, long pingMs) {
+        snapshots.put(key(guildId, channelId),
+                new Snapshot(positionMs, lavalinkTime, System.nanoTime(), connected, pingMs));
+    }
+
+    /**
+     * A new track started: its position is 0 now, before the next update
+     * arrives.
+     */
+    public void trackStarted(long guildId, long channelId) {
+        snapshots.compute(key(guildId, channelId), (k, previous) -> new Snapshot(0, System.currentTimeMillis(),
+                System.nanoTime(), previous == null || previous.connected(), previous == null ? -1 : previous.pingMs()));
+    }
+
+    /**
+     * Latest snapshot for a channel, or null if no update has arrived yet.
+     */
+    public Snapshot get(long guildId, long channelId) {
+        return snapshots.get(key(guildId, channelId));
+    }
+
+    public void remove(long guildId, long channelId) {
+        snapshots.remove(key(guildId, channelId));
+    }
+}
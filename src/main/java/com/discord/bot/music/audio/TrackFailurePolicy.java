@@ -0,0 +1,155 @@
+package com.discord.bot.music.audio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failure policy for tracks that throw or get stuck during playback.
+ * A failed track is retried a limited number of times with exponential
+ * backoff, then optionally re-searched on a fallback source. Consecutive
+ * failures are counted per source (youtube, soundcloud, ...); once a source
+ * crosses the threshold its breaker opens and further tracks from it are
+ * skipped until the cooldown has passed.
+ */
+@Component
+public class TrackFailurePolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackFailurePolicy.class);
+
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final String fallbackSearchPrefix;
+    private final int breakerThreshold;
+    private final long breakerCooldownMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private final Map<String, SourceBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("track-retry-"));
+
+    public TrackFailurePolicy(MeterRegistry meterRegistry,
+            @Value("${lavalink.failure.max-retries:2}") int maxRetries,
+            @Value("${lavalink.failure.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${lavalink.failure.fallback-search-prefix:}") String fallbackSearchPrefix,
+            @Value("${lavalink.failure.breaker-threshold:5}") int breakerThreshold,
+            @Value("${lavalink.failure.breaker-cooldown-ms:60000}") long breakerCooldownMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.fallbackSearchPrefix = fallbackSearchPrefix;
+        this.breakerThreshold = breakerThreshold;
+        this.breakerCooldownMs = breakerCooldownMs;
+        this.retries = Counter.builder("lavalink.track.retries")
+                .description("Failed tracks replayed after a backoff")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a playback failure and update the source's breaker.
+     */
+    public void recordFailure(String source, String reason) {
+        Counter.builder("lavalink.track.failures")
+                .description("Track playback failures by source and reason")
+                .tag("source", source)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+
+        SourceBreaker breaker = breakers.computeIfAbsent(source, k -> new SourceBreaker());
+        int failures = breaker.consecutiveFailures.incrementAndGet();
+        if (failures >= breakerThreshold && !breaker.isOpen()) {
+            breaker.openUntil = System.currentTimeMillis() + breakerCooldownMs;
+            log.warn("Circuit breaker opened for source '{}' after {} consecutive failures, skipping it for {} ms",
+                    source, failures, breakerCooldownMs);
+        }
+    }
+
+    /**
+     * A track from this source started playing: close its breaker.
+     */
+    public void recordSuccess(String source) {
+        SourceBreaker breaker = breakers.get(source);
+        if (breaker != null) {
+            breaker.consecutiveFailures.set(0);
+            breaker.openUntil = 0;
+        }
+    }
+
+    /**
+     * Record a track skipped without playing, e.g. because its source's
+     * breaker is open.
+     */
+    public void recordSkip(String source, String reason) {
+        Counter.builder("lavalink.track.skipped")
+                .description("Tracks skipped without a playback attempt")
+                .tag("source", source)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Whether tracks from this source should currently be skipped. After the
+     * cooldown the next track is let through as a probe.
+     */
+    public boolean isOpen(String source) {
+        SourceBreaker breaker = breakers.get(source);
+        return breaker != null && breaker.isOpen();
+    }
+
+    /**
+     * Whether a track that has already failed this many times may be retried.
+     */
+    public boolean shouldRetry(String source, int failedAttempts) {
+        return failedAttempts <= maxRetries && !isOpen(source);
+    }
+
+    /**
+     * Run a retry after the backoff for the given attempt (1-based).
+     */
+    public void scheduleRetry(int attempt, Runnable retry) {
+        long delay = retryBackoffMs << Math.min(attempt - 1, 10);
+        retries.increment();
+        retryScheduler.schedule(retry, delay, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean hasFallbackSource() {
+        return fallbackSearchPrefix != null && !fallbackSearchPrefix.isBlank();
+    }
+
+    /**
+     * Search identifier for finding the same song on the fallback source.
+     */
+    public String fallbackQuery(String title, String author) {
+        return fallbackSearchPrefix + (author != null ? author + " " : "") + title;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+
+    private static class SourceBreaker {
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long openUntil;
+
+        boolean isOpen() {
+            return System.currentTimeMillis() < openUntil;
+        }
+    }
+}
@@ -5,18 +5,24 @@ import com.discord.bot.music.model.TrackInfo;
 import dev.arbjerg.lavalink.client.LavalinkClient;
 import dev.arbjerg.lavalink.client.Link;
 import dev.arbjerg.lavalink.client.event.*;
+import dev.arbjerg.lavalink.client.player.SearchResult;
+import dev.arbjerg.lavalink.protocol.v4.Message.EmittedEvent.TrackEndEvent.AudioTrackEndReason;
+import dev.arbjerg.lavalink.protocol.v4.PlayerState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles Lavalink track lifecycle events (end, exception, stuck).
- * Automatically advances to the next track in queue when current finishes.
- * Supports multi-bot: maps LavalinkClient instances to their BotInstance.
+ * Automatically advances to the next track in queue when current finishes;
+ * failing tracks go through {@link TrackFailurePolicy} first.
+ * Supports multi-bot: every event is routed by (LavalinkClient userId,
+ * guildId) to the channel that client's bot is playing in.
  */
 @Component
 public class TrackScheduler {
@@ -24,91 +30,244 @@ public class TrackScheduler {
     private static final Logger log = LoggerFactory.getLogger(TrackScheduler.class);
 
     private final GuildMusicManager guildMusicManager;
+    private final GuildEventExecutor guildEventExecutor;
+    private final TrackFailurePolicy failurePolicy;
+    private final PlayerStateMirror playerStateMirror;
 
-    /**
-     * Maps LavalinkClient userId to BotInstance for event routing.
-     */
-    private final Map<Long, BotInstance> clientBotMap = new ConcurrentHashMap<>();
+    private final Timer trackStartDispatch;
+    private final Timer trackEndDispatch;
+    private final Timer trackExceptionDispatch;
+    private final Timer trackStuckDispatch;
 
-    public TrackScheduler(@Lazy GuildMusicManager guildMusicManager) {
+    public TrackScheduler(@Lazy GuildMusicManager guildMusicManager, GuildEventExecutor guildEventExecutor,
+            TrackFailurePolicy failurePolicy, PlayerStateMirror playerStateMirror, MeterRegistry meterRegistry) {
         this.guildMusicManager = guildMusicManager;
+        this.guildEventExecutor = guildEventExecutor;
+        this.failurePolicy = failurePolicy;
+        this.playerStateMirror = playerStateMirror;
+        this.trackStartDispatch = dispatchTimer(meterRegistry, "track_start");
+        this.trackEndDispatch = dispatchTimer(meterRegistry, "track_end");
+        this.trackExceptionDispatch = dispatchTimer(meterRegistry, "track_exception");
+        this.trackStuckDispatch = dispatchTimer(meterRegistry, "track_stuck");
+    }
+
+    private static Timer dispatchTimer(MeterRegistry meterRegistry, String event) {
+        return Timer.builder("lavalink.event.dispatch")
+                .description("Time from receiving a Lavalink event to finishing its handling")
+                .tag("event", event)
+                .register(meterRegistry);
     }
 
     /**
-     * Register event listeners on a Lavalink client and map it to its bot instance.
+     * Register event listeners on a Lavalink client. Events are tagged with
+     * the client's userId, which identifies the bot that emitted them, and
+     * handed to the guild's partition of the event executor so queue updates
+     * and player REST calls never run on the client's websocket thread.
      */
     public void registerListeners(LavalinkClient client) {
-        client.on(TrackEndEvent.class).subscribe(this::onTrackEnd);
-        client.on(TrackExceptionEvent.class).subscribe(this::onTrackException);
-        client.on(TrackStuckEvent.class).subscribe(this::onTrackStuck);
-        client.on(TrackStartEvent.class).subscribe(this::onTrackStart);
+        long botId = client.getUserId();
+        client.on(TrackEndEvent.class).subscribe(event -> dispatch(event.getGuildId(), trackEndDispatch,
+                () -> onTrackEnd(botId, event)));
+        client.on(TrackExceptionEvent.class).subscribe(event -> dispatch(event.getGuildId(), trackExceptionDispatch,
+                () -> onTrackException(botId, event)));
+        client.on(TrackStuckEvent.class).subscribe(event -> dispatch(event.getGuildId(), trackStuckDispatch,
+                () -> onTrackStuck(botId, event)));
+        client.on(TrackStartEvent.class).subscribe(event -> dispatch(event.getGuildId(), trackStartDispatch,
+                () -> onTrackStart(botId, event)));
+        // Cheap and lock-free, so handled inline on the websocket thread
+        client.on(PlayerUpdateEvent.class).subscribe(event -> onPlayerUpdate(botId, event));
     }
 
-    /**
-     * Associate a LavalinkClient's userId with its BotInstance.
-     * Called from JdaConfig after creating each bot instance.
-     */
-    public void registerBotMapping(long botUserId, BotInstance botInstance) {
-        clientBotMap.put(botUserId, botInstance);
-        log.info("Mapped LavalinkClient userId {} to bot {}", botUserId, botInstance.getBotName());
+    private void dispatch(long guildId, Timer timer, Runnable handler) {
+        long receivedAt = System.nanoTime();
+        guildEventExecutor.execute(guildId, () -> {
+            try {
+                handler.run();
+            } finally {
+                timer.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+            }
+        });
     }
 
-    private void onTrackStart(TrackStartEvent event) {
+    private void onPlayerUpdate(long botId, PlayerUpdateEvent event) {
+        BotInstance bot = guildMusicManager.getBotPool().getBotById(botId);
+        Long channelId = bot != null ? bot.getConnectedChannel(event.getGuildId()) : null;
+        if (channelId == null) {
+            return;
+        }
+        PlayerState state = event.getState();
+        playerStateMirror.update(event.getGuildId(), channelId, state.getPosition(), state.getTime(),
+                state.getConnected(), state.getPing());
+    }
+
+    private void onTrackStart(long botId, TrackStartEvent event) {
         long guildId = event.getGuildId();
-        log.info("Track started in guild {}: {}", guildId, event.getTrack().getInfo().getTitle());
+        failurePolicy.recordSuccess(event.getTrack().getInfo().getSourceName());
+        BotInstance bot = findBot(botId, guildId);
+        Long channelId = bot != null ? bot.getConnectedChannel(guildId) : null;
+        if (channelId != null) {
+            playerStateMirror.trackStarted(guildId, channelId);
+        }
+        log.info("Track started in guild {} (bot {}): {}", guildId, botId, event.getTrack().getInfo().getTitle());
     }
 
-    private void onTrackEnd(TrackEndEvent event) {
+    private void onTrackEnd(long botId, TrackEndEvent event) {
+        // A LOAD_FAILED end always follows a TrackExceptionEvent, which already
+        // decided whether to retry, fall back or skip
+        if (event.getEndReason() == AudioTrackEndReason.LOAD_FAILED) {
+            return;
+        }
         if (event.getEndReason().getMayStartNext()) {
-            playNext(event.getGuildId());
+            playNext(botId, event.getGuildId());
         }
     }
 
-    private void onTrackException(TrackExceptionEvent event) {
+    private void onTrackException(long botId, TrackExceptionEvent event) {
         log.error("Track exception in guild {}: {}", event.getGuildId(), event.getException().getMessage());
-        playNext(event.getGuildId());
+        handleFailure(botId, event.getGuildId(), "exception");
     }
 
-    private void onTrackStuck(TrackStuckEvent event) {
+    private void onTrackStuck(long botId, TrackStuckEvent event) {
         log.warn("Track stuck in guild {} (threshold: {}ms)", event.getGuildId(), event.getThresholdMs());
-        playNext(event.getGuildId());
+        handleFailure(botId, event.getGuildId(), "stuck");
     }
 
     /**
-     * Advance to the next track.
-     * Finds the correct bot and channel for this guild from the pool.
+     * Apply the failure policy to the channel's current track: retry it after
+     * a backoff, look it up on the fallback source, or move on.
      */
-    private void playNext(long guildId) {
-        // Find which bot(s) are connected in this guild
-        BotInstancePool pool = guildMusicManager.getBotPool();
-        for (BotInstance bot : pool.getAllInstances()) {
-            Long channelId = bot.getConnectedChannel(guildId);
-            if (channelId != null) {
-                playNextForChannel(guildId, channelId, bot);
-                return;
-            }
+    private void handleFailure(long botId, long guildId, String reason) {
+        BotInstance bot = findBot(botId, guildId);
+        // The bot may have left or been released since findBot looked
+        Long channelId = bot != null ? bot.getConnectedChannel(guildId) : null;
+        if (channelId == null) {
+            return;
+        }
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        TrackInfo current = queue.getCurrentTrack();
+        if (current == null) {
+            playNextForChannel(guildId, channelId, bot);
+            return;
+        }
+
+        String source = current.getSourceName();
+        failurePolicy.recordFailure(source, reason);
+        int attempt = current.getFailedAttempts() + 1;
+        current.setFailedAttempts(attempt);
+
+        if (failurePolicy.shouldRetry(source, attempt)) {
+            log.info("Retrying '{}' in guild {} channel {} (attempt {})", current.getTitle(), guildId, channelId,
+                    attempt);
+            failurePolicy.scheduleRetry(attempt, () -> guildEventExecutor.execute(guildId, () -> {
+                // Skip the retry if the user moved on in the meantime
+                if (queue.getCurrentTrack() == current && bot.isInChannel(guildId, channelId)) {
+                    startTrack(bot, guildId, channelId, current);
+                }
+            }));
+        } else if (!current.isFallback() && failurePolicy.hasFallbackSource()) {
+            playFallback(bot, guildId, channelId, current);
+        } else {
+            playNextForChannel(guildId, channelId, bot);
         }
-        log.warn("No bot found connected in guild {} for playNext", guildId);
+    }
+
+    /**
+     * Replace a failing track with the best match from the fallback source,
+     * or advance the queue if there is none.
+     */
+    private void playFallback(BotInstance bot, long guildId, long channelId, TrackInfo failed) {
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        String query = failurePolicy.fallbackQuery(failed.getTitle(), failed.getAuthor());
+        log.info("Looking up '{}' on fallback source in guild {} channel {}", failed.getTitle(), guildId, channelId);
+
+        guildMusicManager.loadItem(bot, query).subscribe(
+                result -> guildEventExecutor.execute(guildId, () -> {
+                    if (queue.getCurrentTrack() != failed || !bot.isInChannel(guildId, channelId)) {
+                        return;
+                    }
+                    if (result instanceof SearchResult searchResult && !searchResult.getTracks().isEmpty()) {
+                        TrackInfo replacement = GuildMusicManager.toTrackInfo(searchResult.getTracks().get(0),
+                                failed.getRequesterId(), failed.getRequesterName());
+                        replacement.setFallback(true);
+                        queue.replaceCurrentTrack(replacement);
+                        startTrack(bot, guildId, channelId, replacement);
+                    } else {
+                        playNextForChannel(guildId, channelId, bot);
+                    }
+                }),
+                error -> guildEventExecutor.execute(guildId, () -> {
+                    log.error("Fallback search failed in guild {} channel {}: {}",
+                            guildId, channelId, error.getMessage());
+                    if (queue.getCurrentTrack() == failed && bot.isInChannel(guildId, channelId)) {
+                        playNextForChannel(guildId, channelId, bot);
+                    }
+                }));
+    }
+
+    /**
+     * Advance to the next track on the channel the emitting bot is serving
+     * in this guild.
+     */
+    private void playNext(long botId, long guildId) {
+        BotInstance bot = findBot(botId, guildId);
+        Long channelId = bot != null ? bot.getConnectedChannel(guildId) : null;
+        if (channelId != null) {
+            playNextForChannel(guildId, channelId, bot);
+        }
+    }
+
+    /**
+     * Resolve the bot that emitted an event, if it is still serving a channel
+     * in the guild.
+     */
+    private BotInstance findBot(long botId, long guildId) {
+        BotInstance bot = guildMusicManager.getBotPool().getBotById(botId);
+        if (bot == null) {
+            log.warn("Event from unknown bot {} in guild {}, ignoring", botId, guildId);
+            return null;
+        }
+        if (bot.getConnectedChannel(guildId) == null) {
+            log.warn("Bot {} is not connected in guild {}, ignoring event", bot.getBotName(), guildId);
+            return null;
+        }
+        return bot;
     }
 
     private void playNextForChannel(long guildId, long channelId, BotInstance bot) {
         GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
         TrackInfo next = queue.dequeue();
 
+        // Skip tracks from sources whose breaker is open
+        while (next != null && failurePolicy.isOpen(next.getSourceName())) {
+            if (failurePolicy.hasFallbackSource()) {
+                queue.setCurrentTrack(next);
+                playFallback(bot, guildId, channelId, next);
+                return;
+            }
+            log.info("Skipping '{}' in guild {} channel {}: source '{}' is failing",
+                    next.getTitle(), guildId, channelId, next.getSourceName());
+            failurePolicy.recordSkip(next.getSourceName(), "breaker_open");
+            next = queue.dequeue();
+        }
+
         if (next != null) {
             queue.setCurrentTrack(next);
-            Link link = bot.getLavalinkClient().getOrCreateLink(guildId);
-            link.createOrUpdatePlayer()
-                    .setTrack(next.getLavalinkTrack())
-                    .setPaused(false)
-                    .subscribe(
-                            player -> log.info("Now playing in guild {} channel {}: {}",
-                                    guildId, channelId, next.getTitle()),
-                            error -> log.error("Failed to play next in guild {} channel {}: {}",
-                                    guildId, channelId, error.getMessage()));
+            startTrack(bot, guildId, channelId, next);
         } else {
             queue.setCurrentTrack(null);
             log.info("Queue empty in guild {} channel {}, playback stopped", guildId, channelId);
         }
     }
+
+    private void startTrack(BotInstance bot, long guildId, long channelId, TrackInfo track) {
+        Link link = bot.getLavalinkClient().getOrCreateLink(guildId);
+        link.createOrUpdatePlayer()
+                .setTrack(track.getLavalinkTrack())
+                .setPaused(false)
+                .subscribe(
+                        player -> log.info("Now playing in guild {} channel {}: {}",
+                                guildId, channelId, track.getTitle()),
+                        error -> log.error("Failed to play next in guild {} channel {}: {}",
+                                guildId, channelId, error.getMessage()));
+    }
 }
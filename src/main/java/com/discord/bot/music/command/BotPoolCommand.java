@@ -0,0 +1,93 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.config.properties.AppProperties;
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.service.BotPoolService;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /bot-pool list|retire — Inspect and shrink the bot pool at runtime (bot
+ * operators only). Bots are added through POST /api/v1/admin/bots only, so
+ * their tokens never pass through Discord interactions or client history.
+ */
+@Component
+public class BotPoolCommand implements SlashCommand {
+
+    private final BotPoolService botPoolService;
+    private final AppProperties appProperties;
+
+    public BotPoolCommand(BotPoolService botPoolService, AppProperties appProperties) {
+        this.botPoolService = botPoolService;
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public String getName() {
+        return "bot-pool";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("bot-pool", "Manage music bot instances at runtime (Bot operators)")
+                .setDefaultPermissions(DefaultMemberPermissions.DISABLED)
+                .addSubcommands(
+                        new SubcommandData("list", "List all bot instances and their sessions"),
+                        new SubcommandData("retire", "Retire a bot once its current sessions end")
+                                .addOption(OptionType.INTEGER, "index", "Bot index from /bot-pool list", true));
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        if (!appProperties.getAdmin().getUserIds().contains(event.getUser().getId())) {
+            event.reply("❌ Only bot operators can manage the bot pool.").setEphemeral(true).queue();
+            return;
+        }
+
+        String subcommand = event.getSubcommandName();
+        if (subcommand == null) {
+            event.reply("❌ Invalid subcommand.").setEphemeral(true).queue();
+            return;
+        }
+
+        switch (subcommand) {
+            case "list" -> handleList(event);
+            case "retire" -> handleRetire(event);
+            default -> event.reply("❌ Unknown subcommand.").setEphemeral(true).queue();
+        }
+    }
+
+    private void handleList(SlashCommandInteractionEvent event) {
+        StringBuilder sb = new StringBuilder("🤖 **Bot Pool:**\n\n");
+        for (Map<String, Object> bot : botPoolService.describeBots()) {
+            sb.append(String.format("`#%s` **%s**%s%s — %s session(s)\n",
+                    bot.get("index"), bot.get("name"),
+                    Boolean.TRUE.equals(bot.get("primary")) ? " ⭐" : "",
+                    Boolean.TRUE.equals(bot.get("draining")) ? " (draining)" : "",
+                    bot.get("sessions")));
+        }
+        event.reply(sb.toString()).setEphemeral(true).queue();
+    }
+
+    private void handleRetire(SlashCommandInteractionEvent event) {
+        int index = event.getOption("index").getAsInt();
+        BotInstance bot = botPoolService.retireBot(index);
+        if (bot == null) {
+            event.reply("❌ No secondary bot with index `#" + index + "`.").setEphemeral(true).queue();
+            return;
+        }
+
+        String message = bot.getConnectedCount() == 0
+                ? "🛑 Bot **" + bot.getBotName() + "** was idle and has been shut down."
+                : "⏳ Bot **" + bot.getBotName() + "** is draining and will shut down after its "
+                        + bot.getConnectedCount() + " active session(s) end.";
+        event.reply(message).setEphemeral(true).queue();
+    }
+}
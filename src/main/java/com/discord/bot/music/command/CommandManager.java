@@ -1,20 +1,30 @@
 package com.discord.bot.music.command;
 
+import jakarta.annotation.PreDestroy;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Manages slash command registration and event dispatching.
- * Collects all SlashCommand beans and registers them with Discord on ready.
+ * Collects all SlashCommand beans and registers them with Discord on ready,
+ * and routes button clicks to the command that sent the button.
+ * Handlers run on a pool of their own (discord.threads.command-pool), since
+ * some wait on Lavalink or the database; the gateway thread that delivered
+ * the interaction is free again at once.
  */
 @Component
 public class CommandManager extends ListenerAdapter {
@@ -22,8 +32,12 @@ public class CommandManager extends ListenerAdapter {
     private static final Logger log = LoggerFactory.getLogger(CommandManager.class);
 
     private final Map<String, SlashCommand> commands = new HashMap<>();
+    private final ExecutorService commandPool;
 
-    public CommandManager(List<SlashCommand> slashCommands) {
+    public CommandManager(List<SlashCommand> slashCommands,
+            @Value("${discord.threads.command-pool:8}") int commandThreads) {
+        this.commandPool = Executors.newFixedThreadPool(commandThreads,
+                new CustomizableThreadFactory("bot-commands-"));
         for (SlashCommand cmd : slashCommands) {
             commands.put(cmd.getName(), cmd);
             log.info("Registered slash command: /{}", cmd.getName());
@@ -32,6 +46,11 @@ public class CommandManager extends ListenerAdapter {
 
     @Override
     public void onReady(ReadyEvent event) {
+        // Global commands are shared by all shards; register them once
+        if (event.getJDA().getShardInfo().getShardId() != 0) {
+            return;
+        }
+
         List<SlashCommandData> commandDataList = commands.values().stream()
                 .map(SlashCommand::getCommandData)
                 .toList();
@@ -45,21 +64,52 @@ public class CommandManager extends ListenerAdapter {
 
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        String commandName = event.getName();
-        SlashCommand command = commands.get(commandName);
+        SlashCommand command = commands.get(event.getName());
 
         if (command != null) {
-            try {
-                command.execute(event);
-            } catch (Exception e) {
-                log.error("Error executing command /{}: {}", commandName, e.getMessage(), e);
-                if (event.isAcknowledged()) {
-                    event.getHook().sendMessage("❌ An error occurred while executing this command.").queue();
-                } else {
-                    event.reply("❌ An error occurred while executing this command.")
-                            .setEphemeral(true)
-                            .queue();
-                }
+            commandPool.execute(() -> execute(command, event));
+        }
+    }
+
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        String componentId = event.getComponentId();
+        int separator = componentId.indexOf(':');
+        SlashCommand command = separator > 0 ? commands.get(componentId.substring(0, separator)) : null;
+
+        if (command != null) {
+            commandPool.execute(() -> onButton(command, event));
+        }
+    }
+
+    private void execute(SlashCommand command, SlashCommandInteractionEvent event) {
+        try {
+            command.execute(event);
+        } catch (Exception e) {
+            log.error("Error executing command /{}: {}", event.getName(), e.getMessage(), e);
+            if (event.isAcknowledged()) {
+                event.getHook().sendMessage("❌ An error occurred while executing this command.").queue();
+            } else {
+                event.reply("❌ An error occurred while executing this command.")
+                        .setEphemeral(true)
+                        .queue();
+            }
+        }
+    }
+
+    private void onButton(SlashCommand command, ButtonInteractionEvent event) {
+        try {
+            command.onButton(event);
+        } catch (Exception e) {
+            log.error("Error handling button {}: {}", event.getComponentId(), e.getMessage(), e);
+            if (event.isAcknowledged()) {
+                event.getHook().sendMessage("❌ An error occurred while handling this button.")
+                        .setEphemeral(true)
+                        .queue();
+            } else {
+                event.reply("❌ An error occurred while handling this button.")
+                        .setEphemeral(true)
+                        .queue();
             }
         }
     }
@@ -67,4 +117,9 @@ public class CommandManager extends ListenerAdapter {
     public Map<String, SlashCommand> getCommands() {
         return commands;
     }
+
+    @PreDestroy
+    public void shutdown() {
+        commandPool.shutdown();
+    }
 }
@@ -47,8 +47,9 @@ public class CommandRegistry {
      */
     private String categorizeCommand(String commandName) {
         return switch (commandName) {
-            case "play", "stop", "next", "pre", "pause", "resume" -> "🎶 Music Controls";
-            case "playlist-add", "playlist-list", "playlist-remove" -> "📋 Playlist Management";
+            case "play", "stop", "next", "pre", "pause", "resume", "nowplaying" -> "🎶 Music Controls";
+            case "playlist-add", "playlist-list", "playlist-search", "playlist-remove", "playlist-move",
+                    "playlist-export", "playlist-import" -> "📋 Playlist Management";
             case "set-create-channel" -> "🎙️ Temporary Voice Channels";
             case "autovoice" -> {
                 // This will be handled separately with subcommands
@@ -70,11 +71,16 @@ public class CommandRegistry {
             case "pre" -> "Play the previous track from history";
             case "pause" -> "Pause the current track";
             case "resume" -> "Resume playback";
+            case "nowplaying" -> "Show the current track and its progress";
 
             // Playlist Management
             case "playlist-add" -> "Save the current track to a playlist";
             case "playlist-list" -> "View all your playlists and tracks";
+            case "playlist-search" -> "Find saved tracks by title or artist";
             case "playlist-remove" -> "Remove a track from a playlist";
+            case "playlist-move" -> "Move a track to another position in a playlist";
+            case "playlist-export" -> "Download your playlists as a backup file";
+            case "playlist-import" -> "Import playlists from an exported file";
 
             // Temporary Voice Channels
             case "set-create-channel" -> "Set the voice channel for creating temporary channels (Admin)";
@@ -84,6 +90,7 @@ public class CommandRegistry {
 
             // Bot Help
             case "bot-help" -> "Show all available bot commands";
+            case "bot-pool" -> "List or retire music bot instances at runtime (Bot operators)";
 
             default -> "No description available";
         };
@@ -0,0 +1,36 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.music.service.MusicService;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.springframework.stereotype.Component;
+
+/**
+ * /nowplaying — Show the current track with a progress bar.
+ */
+@Component
+public class NowPlayingCommand implements SlashCommand {
+
+    private final MusicService musicService;
+
+    public NowPlayingCommand(MusicService musicService) {
+        this.musicService = musicService;
+    }
+
+    @Override
+    public String getName() {
+        return "nowplaying";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("nowplaying", "Show the current track and its progress");
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        String result = musicService.nowPlaying(event.getGuild(), event.getMember());
+        event.reply(result).queue();
+    }
+}
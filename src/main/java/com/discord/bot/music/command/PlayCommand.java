@@ -35,7 +35,7 @@ public class PlayCommand implements SlashCommand {
         event.deferReply().queue();
 
         String query = event.getOption("query").getAsString();
-        String result = musicService.play(event.getGuild(), event.getMember(), query);
+        String result = musicService.play(event.getGuild(), event.getMember(), query, event.getChannel());
 
         event.getHook().sendMessage(result).queue();
     }
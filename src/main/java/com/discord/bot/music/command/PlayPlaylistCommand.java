@@ -51,7 +51,7 @@ public class PlayPlaylistCommand implements SlashCommand {
 
         // Pass the target user ID to MusicService
         String result = musicService.playPlaylist(event.getGuild(), event.getMember(), targetUser.getId(),
-                playlistName);
+                playlistName, event.getChannel());
 
         event.getHook().sendMessage(result).queue();
     }
@@ -7,6 +7,7 @@ import com.discord.bot.music.model.TrackInfo;
 import com.discord.bot.music.service.MusicService;
 import com.discord.bot.music.service.PlaylistService;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
@@ -14,9 +15,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
- * /playlist-add <name> [query] — Add the currently playing track or a specific
- * track to a playlist.
+ * /playlist-add <name> [query] [skip-duplicates] — Add the currently playing
+ * track or a specific track to a playlist. With skip-duplicates, tracks
+ * already in the playlist are left out.
  */
 @Component
 public class PlaylistAddCommand implements SlashCommand {
@@ -40,7 +44,9 @@ public class PlaylistAddCommand implements SlashCommand {
     public SlashCommandData getCommandData() {
         return Commands.slash("playlist-add", "Add a track to a playlist")
                 .addOption(OptionType.STRING, "name", "Playlist name", true)
-                .addOption(OptionType.STRING, "query", "Song name or URL (optional, defaults to now playing)", false);
+                .addOption(OptionType.STRING, "query", "Song name or URL (optional, defaults to now playing)", false)
+                .addOption(OptionType.BOOLEAN, "skip-duplicates",
+                        "Skip tracks already in the playlist (default: false)", false);
     }
 
     @Override
@@ -51,21 +57,22 @@ public class PlaylistAddCommand implements SlashCommand {
         String userId = event.getUser().getId();
         String userName = event.getUser().getName();
         long guildId = event.getGuild().getIdLong();
+        boolean skipDuplicates = event.getOption("skip-duplicates", false, OptionMapping::getAsBoolean);
 
         var queryOption = event.getOption("query");
 
         if (queryOption != null) {
             // Addition by URL/Search
             String query = queryOption.getAsString();
-            handleUrlAddition(event, userId, userName, playlistName, query, guildId);
+            handleUrlAddition(event, userId, userName, playlistName, query, guildId, skipDuplicates);
         } else {
             // Addition by Now Playing
-            handleNowPlayingAddition(event, userId, playlistName, guildId);
+            handleNowPlayingAddition(event, userId, playlistName, guildId, skipDuplicates);
         }
     }
 
     private void handleNowPlayingAddition(SlashCommandInteractionEvent event, String userId, String playlistName,
-            long guildId) {
+            long guildId, boolean skipDuplicates) {
         net.dv8tion.jda.api.entities.GuildVoiceState voiceState = event.getMember().getVoiceState();
         if (voiceState == null || !voiceState.inAudioChannel()) {
             event.getHook().sendMessage("❌ You must be in a voice channel to add the 'now playing' track!").queue();
@@ -80,12 +87,12 @@ public class PlaylistAddCommand implements SlashCommand {
             return;
         }
 
-        String result = playlistService.addTrack(userId, playlistName, nowPlaying);
+        String result = playlistService.addTrack(userId, playlistName, nowPlaying, skipDuplicates);
         event.getHook().sendMessage(result).queue();
     }
 
     private void handleUrlAddition(SlashCommandInteractionEvent event, String userId, String userName,
-            String playlistName, String query, long guildId) {
+            String playlistName, String query, long guildId, boolean skipDuplicates) {
         // We use the primary bot to resolve metadata
         BotInstancePool botPool = musicService.getGuildMusicManager().getBotPool();
         BotInstance primaryBot = botPool.getPrimaryBot();
@@ -97,33 +104,28 @@ public class PlaylistAddCommand implements SlashCommand {
 
         final String searchQuery = query.startsWith("http") ? query : "ytsearch:" + query;
 
-        // Must load via a Link in Lavalink Client v4
-        primaryBot.getLavalinkClient().getOrCreateLink(guildId).loadItem(searchQuery).subscribe(result -> {
+        // Resolved on a search node so imports do not load the playback nodes
+        musicService.getGuildMusicManager().loadItem(primaryBot, searchQuery).subscribe(result -> {
             log.info("Lavalink load result for query '{}': {}", searchQuery, result.getClass().getSimpleName());
 
             if (result instanceof dev.arbjerg.lavalink.client.player.TrackLoaded trackLoaded) {
                 var track = trackLoaded.getTrack();
                 TrackInfo info = GuildMusicManager.toTrackInfo(track, userId, userName);
-                String msg = playlistService.addTrack(userId, playlistName, info);
+                String msg = playlistService.addTrack(userId, playlistName, info, skipDuplicates);
                 event.getHook().sendMessage(msg).queue();
             } else if (result instanceof dev.arbjerg.lavalink.client.player.PlaylistLoaded playlistLoaded) {
                 var tracks = playlistLoaded.getTracks();
                 log.info("Loaded YouTube playlist with {} tracks", tracks.size());
-                int count = 0;
-                for (var track : tracks) {
-                    TrackInfo info = GuildMusicManager.toTrackInfo(track, userId, userName);
-                    playlistService.addTrack(userId, playlistName, info);
-                    count++;
-                }
-                event.getHook()
-                        .sendMessage(
-                                "✅ Added **" + count + "** tracks from YouTube playlist to **" + playlistName + "**.")
-                        .queue();
+                List<TrackInfo> infos = tracks.stream()
+                        .map(track -> GuildMusicManager.toTrackInfo(track, userId, userName))
+                        .toList();
+                String msg = playlistService.addTracks(userId, playlistName, infos, skipDuplicates);
+                event.getHook().sendMessage(msg).queue();
             } else if (result instanceof dev.arbjerg.lavalink.client.player.SearchResult searchResult
                     && !searchResult.getTracks().isEmpty()) {
                 var track = searchResult.getTracks().get(0);
                 TrackInfo info = GuildMusicManager.toTrackInfo(track, userId, userName);
-                String msg = playlistService.addTrack(userId, playlistName, info);
+                String msg = playlistService.addTrack(userId, playlistName, info, skipDuplicates);
                 event.getHook().sendMessage(msg).queue();
             } else if (result instanceof dev.arbjerg.lavalink.client.player.NoMatches) {
                 log.warn("No matches found for query: {}", searchQuery);
@@ -0,0 +1,100 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.music.service.PlaylistTransferService;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.utils.FileUpload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * /playlist-export [name] — Download your playlists (or one of them) as a
+ * file that /playlist-import accepts.
+ */
+@Component
+public class PlaylistExportCommand implements SlashCommand {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistExportCommand.class);
+
+    /** Discord's upload limit for bots without a boosted server. */
+    private static final long MAX_UPLOAD_BYTES = 10L * 1024 * 1024;
+
+    private final PlaylistTransferService playlistTransferService;
+
+    public PlaylistExportCommand(PlaylistTransferService playlistTransferService) {
+        this.playlistTransferService = playlistTransferService;
+    }
+
+    @Override
+    public String getName() {
+        return "playlist-export";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("playlist-export", "Download your playlists as a backup file")
+                .addOption(OptionType.STRING, "name", "Playlist name (optional, defaults to all playlists)", false);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        event.deferReply(true).queue();
+
+        String userId = event.getUser().getId();
+        OptionMapping nameOption = event.getOption("name");
+        String playlistName = nameOption != null ? nameOption.getAsString() : null;
+
+        // Written to a temp file rather than memory, then uploaded
+        Path file = null;
+        try {
+            file = Files.createTempFile("playlists-" + userId + "-", ".jsonl.gz");
+            int tracks;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                tracks = playlistTransferService.exportPlaylists(userId, playlistName, out);
+            }
+
+            if (tracks == 0) {
+                event.getHook().sendMessage(playlistName != null
+                        ? "❌ Playlist **" + playlistName + "** is empty or does not exist."
+                        : "📋 You don't have any playlists yet. Use `/playlist-add` to create one!").queue();
+                deleteQuietly(file);
+                return;
+            }
+            if (Files.size(file) > MAX_UPLOAD_BYTES) {
+                event.getHook().sendMessage("❌ The export is too large to upload to Discord. "
+                        + "Ask a bot operator to export it through the admin API.").queue();
+                deleteQuietly(file);
+                return;
+            }
+
+            Path upload = file;
+            event.getHook()
+                    .sendMessage("📦 Exported **" + tracks + "** tracks. Use `/playlist-import` to restore them.")
+                    .addFiles(FileUpload.fromData(upload, "playlists.jsonl.gz"))
+                    .queue(success -> deleteQuietly(upload), failure -> deleteQuietly(upload));
+        } catch (IOException e) {
+            log.error("Failed to export playlists for user {}: {}", userId, e.getMessage(), e);
+            event.getHook().sendMessage("❌ Error exporting playlists: " + e.getMessage()).queue();
+            if (file != null) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary export {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.music.service.PlaylistTransferService;
+import com.discord.bot.music.service.PlaylistTransferService.ImportResult;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * /playlist-import <file> — Add the playlists of a /playlist-export file to
+ * your own.
+ */
+@Component
+public class PlaylistImportCommand implements SlashCommand {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistImportCommand.class);
+
+    private final PlaylistTransferService playlistTransferService;
+
+    public PlaylistImportCommand(PlaylistTransferService playlistTransferService) {
+        this.playlistTransferService = playlistTransferService;
+    }
+
+    @Override
+    public String getName() {
+        return "playlist-import";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("playlist-import", "Import playlists from a /playlist-export file")
+                .addOption(OptionType.ATTACHMENT, "file", "File created by /playlist-export", true);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        event.deferReply(true).queue();
+
+        String userId = event.getUser().getId();
+        Message.Attachment attachment = event.getOption("file").getAsAttachment();
+
+        // Streamed from Discord's CDN straight into batched inserts
+        attachment.getProxy().download().whenComplete((in, error) -> {
+            if (error != null) {
+                log.error("Failed to download playlist import for user {}: {}", userId, error.getMessage());
+                event.getHook().sendMessage("❌ Could not download the file: " + error.getMessage()).queue();
+                return;
+            }
+            try (InputStream stream = in) {
+                ImportResult result = playlistTransferService.importPlaylists(userId, stream);
+                event.getHook().sendMessage("✅ Imported **" + result.tracks() + "** tracks into **"
+                        + result.playlists() + "** playlist" + (result.playlists() == 1 ? "" : "s") + ".").queue();
+            } catch (IllegalArgumentException e) {
+                event.getHook().sendMessage("❌ " + e.getMessage() + ". Nothing was imported.").queue();
+            } catch (Exception e) {
+                log.error("Failed to import playlists for user {}: {}", userId, e.getMessage(), e);
+                event.getHook().sendMessage("❌ Error importing playlists: " + e.getMessage()
+                        + ". Nothing was imported.").queue();
+            }
+        });
+    }
+}
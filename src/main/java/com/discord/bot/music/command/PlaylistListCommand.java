@@ -1,17 +1,31 @@
 package com.discord.bot.music.command;
 
+import com.discord.bot.music.model.PlaylistPage;
 import com.discord.bot.music.service.PlaylistService;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.components.actionrow.ActionRow;
+import net.dv8tion.jda.api.components.buttons.Button;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import org.springframework.stereotype.Component;
 
+import java.awt.Color;
+
 /**
- * /playlist-list — Show all of the user's playlists.
+ * /playlist-list — Browse the user's playlists and tracks, one page at a
+ * time. The Previous/Next buttons carry the keyset of the page on screen
+ * ("playlist-list:next:<userId>:<playlistId>:<position>"), so turning a page
+ * reads only that page and nothing is kept between clicks.
  */
 @Component
 public class PlaylistListCommand implements SlashCommand {
 
+    /** Embed descriptions are limited to 4096 characters; 15 rows of this stay well below. */
+    private static final int MAX_TEXT_LENGTH = 80;
+
     private final PlaylistService playlistService;
 
     public PlaylistListCommand(PlaylistService playlistService) {
@@ -31,13 +45,88 @@ public class PlaylistListCommand implements SlashCommand {
     @Override
     public void execute(SlashCommandInteractionEvent event) {
         String userId = event.getUser().getId();
-        String result = playlistService.listPlaylists(userId);
+        PlaylistPage page = playlistService.firstPage(userId);
+
+        if (page.isEmpty()) {
+            event.reply("📋 You don't have any playlists yet. Use `/playlist-add` to create one!").queue();
+            return;
+        }
+
+        event.replyEmbeds(render(page))
+                .setComponents(buttons(userId, page))
+                .queue();
+    }
+
+    @Override
+    public void onButton(ButtonInteractionEvent event) {
+        String[] parts = event.getComponentId().split(":");
+        if (parts.length != 5) {
+            return;
+        }
+        String userId = parts[2];
+        if (!event.getUser().getId().equals(userId)) {
+            event.reply("❌ Only the person who used `/playlist-list` can turn its pages.")
+                    .setEphemeral(true)
+                    .queue();
+            return;
+        }
 
-        // Discord messages have a 2000 char limit
-        if (result.length() > 2000) {
-            result = result.substring(0, 1997) + "...";
+        PlaylistPage.Key key = new PlaylistPage.Key(Long.parseLong(parts[3]), Integer.parseInt(parts[4]));
+        PlaylistPage page = parts[1].equals("prev")
+                ? playlistService.pageBefore(userId, key)
+                : playlistService.pageAfter(userId, key);
+
+        if (page.isEmpty()) {
+            event.editMessage("📋 You don't have any playlists yet. Use `/playlist-add` to create one!")
+                    .setEmbeds()
+                    .setComponents()
+                    .queue();
+            return;
+        }
+
+        event.editMessageEmbeds(render(page))
+                .setComponents(buttons(userId, page))
+                .queue();
+    }
+
+    private static MessageEmbed render(PlaylistPage page) {
+        StringBuilder sb = new StringBuilder();
+        for (PlaylistPage.Section section : page.sections()) {
+            sb.append(String.format("📋 **%s** — %d track%s\n",
+                    shorten(section.name()), section.trackCount(), section.trackCount() == 1 ? "" : "s"));
+            int number = section.firstNumber();
+            for (PlaylistPage.Track track : section.tracks()) {
+                long minutes = track.durationMs() / 60000;
+                long seconds = (track.durationMs() % 60000) / 1000;
+                sb.append(String.format("   ↳ `%d.` %s — %s (`%d:%02d`)\n",
+                        number++, shorten(track.title()), shorten(track.author()), minutes, seconds));
+            }
+            sb.append("\n");
         }
 
-        event.reply(result).queue();
+        return new EmbedBuilder()
+                .setTitle("📋 Your Playlists")
+                .setColor(new Color(88, 101, 242)) // Discord Blurple
+                .setDescription(sb.toString())
+                .build();
+    }
+
+    private static ActionRow buttons(String userId, PlaylistPage page) {
+        PlaylistPage.Key first = page.first();
+        PlaylistPage.Key last = page.last();
+        return ActionRow.of(
+                Button.secondary(String.join(":", "playlist-list", "prev", userId,
+                        String.valueOf(first.playlistId()), String.valueOf(first.position())), "◀ Previous")
+                        .withDisabled(!page.hasPrevious()),
+                Button.secondary(String.join(":", "playlist-list", "next", userId,
+                        String.valueOf(last.playlistId()), String.valueOf(last.position())), "Next ▶")
+                        .withDisabled(!page.hasNext()));
+    }
+
+    private static String shorten(String text) {
+        if (text == null) {
+            return "Unknown";
+        }
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH - 1) + "…" : text;
     }
 }
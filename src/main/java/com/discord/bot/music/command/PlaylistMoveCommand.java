@@ -0,0 +1,47 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.music.service.PlaylistService;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.springframework.stereotype.Component;
+
+/**
+ * /playlist-move <name> <from> <to> — Move a track to another position in a
+ * playlist.
+ */
+@Component
+public class PlaylistMoveCommand implements SlashCommand {
+
+    private final PlaylistService playlistService;
+
+    public PlaylistMoveCommand(PlaylistService playlistService) {
+        this.playlistService = playlistService;
+    }
+
+    @Override
+    public String getName() {
+        return "playlist-move";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("playlist-move", "Move a track within your playlist")
+                .addOption(OptionType.STRING, "name", "Playlist name", true)
+                .addOption(OptionType.INTEGER, "from", "Track number to move (use /playlist-list to see numbers)",
+                        true)
+                .addOption(OptionType.INTEGER, "to", "New track number", true);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        String userId = event.getUser().getId();
+        String playlistName = event.getOption("name").getAsString();
+        int from = event.getOption("from").getAsInt();
+        int to = event.getOption("to").getAsInt();
+
+        String result = playlistService.moveTrack(userId, playlistName, from, to);
+        event.reply(result).queue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.discord.bot.music.command;
+
+import com.discord.bot.music.service.PlaylistService;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.springframework.stereotype.Component;
+
+/**
+ * /playlist-search <query> — Find saved tracks by title or artist across all
+ * of the user's playlists.
+ */
+@Component
+public class PlaylistSearchCommand implements SlashCommand {
+
+    private final PlaylistService playlistService;
+
+    public PlaylistSearchCommand(PlaylistService playlistService) {
+        this.playlistService = playlistService;
+    }
+
+    @Override
+    public String getName() {
+        return "playlist-search";
+    }
+
+    @Override
+    public SlashCommandData getCommandData() {
+        return Commands.slash("playlist-search", "Find saved tracks across your playlists")
+                .addOption(OptionType.STRING, "query", "Words from the title or artist", true);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        String userId = event.getUser().getId();
+        String query = event.getOption("query").getAsString();
+        String result = playlistService.searchTracks(userId, query);
+
+        // Discord messages have a 2000 char limit
+        if (result.length() > 2000) {
+            result = result.substring(0, 1997) + "...";
+        }
+
+        event.reply(result).queue();
+    }
+}
@@ -1,6 +1,7 @@
 package com.discord.bot.music.command;
 
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 
 /**
@@ -23,4 +24,11 @@ public interface SlashCommand {
      * Execute the command.
      */
     void execute(SlashCommandInteractionEvent event);
+
+    /**
+     * Handle a click on one of the buttons this command sent. Button ids
+     * start with the command name and a colon, e.g. "playlist-list:next:...".
+     */
+    default void onButton(ButtonInteractionEvent event) {
+    }
 }
@@ -0,0 +1,67 @@
+package com.discord.bot.music.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of one channel's playback, saved so a restarted process can take
+ * over the player Lavalink kept alive for the resumed session and rebuild the
+ * channel's queue.
+ */
+@Entity
+@Table(name = "playback_sessions", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "guild_id", "channel_id" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaybackSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bot_id", nullable = false)
+    private Long botId;
+
+    @Column(name = "guild_id", nullable = false)
+    private Long guildId;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    /** Configured name of the Lavalink node holding the player. */
+    @Column(name = "node_name")
+    private String nodeName;
+
+    /** Lavalink session ID the player belongs to. */
+    @Column(name = "lavalink_session_id")
+    private String lavalinkSessionId;
+
+    @Lob
+    @Column(name = "current_track", nullable = false)
+    private String currentTrack;
+
+    @Column(name = "current_requester_id")
+    private String currentRequesterId;
+
+    @Column(name = "current_requester_name")
+    private String currentRequesterName;
+
+    @Column(name = "position_ms")
+    private long positionMs;
+
+    private boolean paused;
+
+    /** Upcoming tracks as a JSON array. */
+    @Lob
+    @Column(name = "queue")
+    private String queue;
+
+    @Column(name = "saved_at", nullable = false)
+    private LocalDateTime savedAt;
+}
@@ -1,5 +1,6 @@
 package com.discord.bot.music.entity;
 
+import com.discord.bot.music.model.TrackUri;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,7 +8,10 @@ import lombok.*;
  * JPA entity representing a single track within a user's playlist.
  */
 @Entity
-@Table(name = "playlist_tracks")
+@Table(name = "playlist_tracks", indexes = {
+        @Index(name = "idx_playlist_tracks_playlist_position", columnList = "playlist_id, position"),
+        @Index(name = "idx_playlist_tracks_playlist_uri_hash", columnList = "playlist_id, uri_hash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +33,10 @@ public class PlaylistTrack {
     @Column(nullable = false)
     private String uri;
 
+    /** {@link TrackUri#hash} of the uri, for finding a track in a playlist with one index probe. */
+    @Column(name = "uri_hash")
+    private Long uriHash;
+
     private String author;
 
     @Column(name = "duration_ms")
@@ -36,4 +44,15 @@ public class PlaylistTrack {
 
     @Column(nullable = false)
     private int position;
+
+    /** Lavalink encoded track, when known; lets exports carry the exact track. */
+    @Lob
+    @Column(name = "encoded_track")
+    private String encoded;
+
+    @PrePersist
+    @PreUpdate
+    public void hashUri() {
+        uriHash = uri != null ? TrackUri.hash(uri) : null;
+    }
 }
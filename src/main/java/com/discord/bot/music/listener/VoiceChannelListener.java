@@ -48,6 +48,14 @@ public class VoiceChannelListener extends ListenerAdapter {
                     }
                 }
             }
+        } else if (event.getChannelLeft() != null
+                && event.getChannelLeft().getMembers().stream().allMatch(m -> m.getUser().isBot())) {
+            // Nobody left to listen: drop the channel from the bot waitlist
+            com.discord.bot.music.audio.GuildMusicManager gmm = findGuildMusicManager();
+            if (gmm != null && gmm.getBotPool().cancelWaiting(guildId, event.getChannelLeft().getIdLong())) {
+                log.info("Channel {} in guild {} emptied while waiting for a bot, removed from waitlist",
+                        event.getChannelLeft().getIdLong(), guildId);
+            }
         }
 
         // Handle user joining the "create channel"
@@ -54,6 +54,14 @@ public class GuildMusicQueue {
         this.currentTrack = track;
     }
 
+    /**
+     * Swap the current track without pushing the old one to history,
+     * e.g. when a failed track is replaced by a fallback match.
+     */
+    public synchronized void replaceCurrentTrack(TrackInfo track) {
+        this.currentTrack = track;
+    }
+
     public synchronized void pushToHistory(TrackInfo track) {
         if (track != null) {
             history.push(track);
@@ -0,0 +1,44 @@
+package com.discord.bot.music.model;
+
+import java.util.List;
+
+/**
+ * One page of /playlist-list: a slice of a user's saved tracks in
+ * (playlist id, position) order, grouped by playlist. Pages are found by
+ * keyset, so {@link #first()} and {@link #last()} are all that is needed to
+ * fetch the pages around this one.
+ */
+public record PlaylistPage(List<Section> sections, Key first, Key last, boolean hasPrevious, boolean hasNext) {
+
+    public PlaylistPage {
+        sections = List.copyOf(sections);
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Keyset position of a row. An empty playlist has a single row at
+     * position -1.
+     */
+    public record Key(long playlistId, int position) {
+
+        /** Before every row. */
+        public static final Key START = new Key(0, -1);
+    }
+
+    /**
+     * The tracks of one playlist shown on the page; the first of them is
+     * track number firstNumber of trackCount.
+     */
+    public record Section(long playlistId, String name, int trackCount, int firstNumber, List<Track> tracks) {
+
+        public Section {
+            tracks = List.copyOf(tracks);
+        }
+    }
+
+    public record Track(String title, String author, long durationMs) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.discord.bot.music.model;
+
+/**
+ * A saved track as held by the playlist search index, with the name of its
+ * playlist.
+ */
+public record PlaylistSearchHit(String playlistName, String title, String author, String uri, long durationMs) {
+}
@@ -0,0 +1,17 @@
+package com.discord.bot.music.model;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a saved playlist and its tracks in play order, safe to
+ * cache and share between threads.
+ */
+public record PlaylistSnapshot(Long id, String userId, String name, List<Track> tracks) {
+
+    public PlaylistSnapshot {
+        tracks = List.copyOf(tracks);
+    }
+
+    public record Track(Long id, String title, String uri, String author, long durationMs, int position) {
+    }
+}
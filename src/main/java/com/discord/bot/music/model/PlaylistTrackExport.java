@@ -0,0 +1,8 @@
+package com.discord.bot.music.model;
+
+/**
+ * One track of a playlist export, with the name of its playlist.
+ */
+public record PlaylistTrackExport(String playlistName, String title, String author, String uri, long durationMs,
+        String encoded) {
+}
@@ -0,0 +1,20 @@
+package com.discord.bot.music.model;
+
+/**
+ * Read-only projection of one playlist track, joined with its playlist.
+ * A playlist without tracks yields one row whose track fields are null.
+ */
+public interface PlaylistTrackRow {
+
+    Long getPlaylistId();
+
+    String getPlaylistName();
+
+    Integer getPosition();
+
+    String getTitle();
+
+    String getAuthor();
+
+    Long getDurationMs();
+}
@@ -25,4 +25,15 @@ public class TrackInfo {
     private String encoded;
     /** The Lavalink Track object, used for player API calls */
     private transient Track lavalinkTrack;
+    /** Playback failures of this track so far, used by the retry policy */
+    private transient int failedAttempts;
+    /** True if this track was found on the fallback source after a failure */
+    private transient boolean fallback;
+
+    /**
+     * Lavalink source name (youtube, soundcloud, ...), or "unknown".
+     */
+    public String getSourceName() {
+        return lavalinkTrack != null ? lavalinkTrack.getInfo().getSourceName() : "unknown";
+    }
 }
@@ -0,0 +1,128 @@
+package com.discord.bot.music.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Canonical form of track URIs, so that the different links to one song
+ * (youtu.be/ID, m.youtube.com/watch?v=ID&t=42, ...) are recognised as the
+ * same track, and the 64-bit hash of that form stored in
+ * playlist_tracks.uri_hash.
+ */
+public final class TrackUri {
+
+    private static final Set<String> YOUTUBE_HOSTS = Set.of(
+            "youtube.com", "www.youtube.com", "m.youtube.com", "music.youtube.com");
+
+    /** Query parameters that only track where a link was shared from. */
+    private static final Set<String> TRACKING_PARAMS = Set.of("si", "feature", "fbclid", "gclid");
+
+    private TrackUri() {
+    }
+
+    /**
+     * The canonical form of a URI. Identifiers that are not http(s) links
+     * are only trimmed.
+     */
+    public static String canonical(String uri) {
+        String trimmed = uri.trim();
+        URI parsed;
+        try {
+            parsed = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        String scheme = parsed.getScheme();
+        if (parsed.getHost() == null || scheme == null
+                || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            return trimmed;
+        }
+
+        String host = parsed.getHost().toLowerCase(Locale.ROOT);
+        String path = parsed.getRawPath() == null ? "" : parsed.getRawPath();
+
+        if (host.equals("youtu.be") && path.length() > 1) {
+            return youtube(path.substring(1));
+        }
+        if (YOUTUBE_HOSTS.contains(host)) {
+            if (path.startsWith("/shorts/")) {
+                return youtube(path.substring("/shorts/".length()));
+            }
+            String videoId = queryParam(parsed.getRawQuery(), "v");
+            if (path.equals("/watch") && videoId != null) {
+                return youtube(videoId);
+            }
+        }
+
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        StringBuilder canonical = new StringBuilder("https://").append(host);
+        if (parsed.getPort() != -1) {
+            canonical.append(':').append(parsed.getPort());
+        }
+        canonical.append(path);
+        String query = withoutTracking(parsed.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * First 8 bytes of the SHA-256 of the canonical form.
+     */
+    public static long hash(String uri) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(canonical(uri).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xff);
+        }
+        return hash;
+    }
+
+    private static String youtube(String videoId) {
+        int end = videoId.indexOf('/');
+        return "https://youtube.com/watch?v=" + (end < 0 ? videoId : videoId.substring(0, end));
+    }
+
+    private static String queryParam(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String param : rawQuery.split("&")) {
+            if (param.startsWith(name + "=") && param.length() > name.length() + 1) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String withoutTracking(String rawQuery) {
+        if (rawQuery == null) {
+            return "";
+        }
+        StringJoiner kept = new StringJoiner("&");
+        for (String param : rawQuery.split("&")) {
+            String name = param.contains("=") ? param.substring(0, param.indexOf('=')) : param;
+            if (!param.isEmpty() && !name.startsWith("utm_") && !TRACKING_PARAMS.contains(name)) {
+                kept.add(param);
+            }
+        }
+        return kept.toString();
+    }
+}
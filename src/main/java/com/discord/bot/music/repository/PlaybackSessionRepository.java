@@ -0,0 +1,26 @@
+package com.discord.bot.music.repository;
+
+import com.discord.bot.music.entity.PlaybackSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for playback snapshots kept across restarts.
+ */
+@Repository
+public interface PlaybackSessionRepository extends JpaRepository<PlaybackSession, Long> {
+
+    List<PlaybackSession> findByBotId(Long botId);
+
+    List<PlaybackSession> findByGuildIdIn(Collection<Long> guildIds);
+
+    void deleteByBotIdIn(Collection<Long> botIds);
+
+    void deleteByBotIdInAndIdNotIn(Collection<Long> botIds, Collection<Long> ids);
+
+    void deleteBySavedAtBefore(LocalDateTime savedAt);
+}
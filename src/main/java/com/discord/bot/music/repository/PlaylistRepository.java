@@ -1,7 +1,13 @@
 package com.discord.bot.music.repository;
 
 import com.discord.bot.music.entity.Playlist;
+import com.discord.bot.music.model.PlaylistTrackRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,9 +19,36 @@ import java.util.Optional;
 @Repository
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
 
+    /** Select of the page queries, one row per track or per empty playlist. */
+    String PAGE_ROWS = "SELECT p.id AS playlistId, p.name AS playlistName, t.position AS position, "
+            + "t.title AS title, t.author AS author, t.durationMs AS durationMs "
+            + "FROM Playlist p LEFT JOIN p.tracks t "
+            + "WHERE p.userId = :userId ";
+
     List<Playlist> findByUserId(String userId);
 
     Optional<Playlist> findByUserIdAndName(String userId, String name);
 
     boolean existsByUserIdAndName(String userId, String name);
+
+    /**
+     * A user's playlists and tracks after the given (playlist id, position),
+     * in that order, without managed entities. Reads only as many rows as
+     * the page asks for, using the (playlist_id, position) index.
+     */
+    @Query(PAGE_ROWS
+            + "AND (p.id > :playlistId OR (p.id = :playlistId AND COALESCE(t.position, -1) > :position)) "
+            + "ORDER BY p.id, t.position")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PlaylistTrackRow> findPageAfter(String userId, long playlistId, int position, Pageable pageable);
+
+    /**
+     * Like {@link #findPageAfter}, but the rows before the given key, nearest
+     * first.
+     */
+    @Query(PAGE_ROWS
+            + "AND (p.id < :playlistId OR (p.id = :playlistId AND COALESCE(t.position, -1) < :position)) "
+            + "ORDER BY p.id DESC, t.position DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PlaylistTrackRow> findPageBefore(String userId, long playlistId, int position, Pageable pageable);
 }
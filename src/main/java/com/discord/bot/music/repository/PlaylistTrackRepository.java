@@ -1,10 +1,21 @@
 package com.discord.bot.music.repository;
 
 import com.discord.bot.music.entity.PlaylistTrack;
+import com.discord.bot.music.model.PlaylistSearchHit;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import com.discord.bot.music.model.PlaylistTrackExport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for PlaylistTrack entities.
@@ -14,7 +25,92 @@ public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Lo
 
     List<PlaylistTrack> findByPlaylistIdOrderByPositionAsc(Long playlistId);
 
+    /**
+     * Tracks by their place in the playlist; PageRequest.of(n, 1) is the
+     * (n + 1)-th track.
+     */
+    List<PlaylistTrack> findByPlaylistIdOrderByPositionAsc(Long playlistId, Pageable pageable);
+
+    Optional<PlaylistTrack> findFirstByPlaylistIdAndPositionGreaterThanOrderByPositionAsc(Long playlistId,
+            int position);
+
+    Optional<PlaylistTrack> findFirstByPlaylistIdAndPositionLessThanOrderByPositionDesc(Long playlistId,
+            int position);
+
+    /**
+     * Tracks of a playlist in play order, as immutable values instead of
+     * managed entities.
+     */
+    @Query("SELECT new com.discord.bot.music.model.PlaylistSnapshot$Track("
+            + "t.id, t.title, t.uri, t.author, t.durationMs, t.position) "
+            + "FROM PlaylistTrack t WHERE t.playlist.id = :playlistId ORDER BY t.position")
+    List<PlaylistSnapshot.Track> findSnapshotTracks(Long playlistId);
+
+    /**
+     * Tracks of a user's playlists for export, grouped by playlist name and in
+     * play order. Pass a null name for every playlist. Must be consumed inside
+     * a transaction and closed. Rows are fetched 500 at a time; MySQL
+     * Connector/J only honours the fetch size with useCursorFetch=true on
+     * the datasource URL and otherwise loads the whole result up front.
+     */
+    @Query("SELECT new com.discord.bot.music.model.PlaylistTrackExport("
+            + "p.name, t.title, t.author, t.uri, t.durationMs, t.encoded) "
+            + "FROM PlaylistTrack t JOIN t.playlist p "
+            + "WHERE p.userId = :userId AND (:playlistName IS NULL OR p.name = :playlistName) "
+            + "ORDER BY p.name, t.position")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    Stream<PlaylistTrackExport> streamForExport(String userId, String playlistName);
+
+    /**
+     * URIs in a playlist with the given hash; served by the
+     * (playlist_id, uri_hash) index. Usually empty or one, more only for
+     * duplicates or hash collisions.
+     */
+    @Query("SELECT t.uri FROM PlaylistTrack t WHERE t.playlist.id = :playlistId AND t.uriHash = :uriHash")
+    List<String> findUrisByUriHash(Long playlistId, long uriHash);
+
+    @Query("SELECT t.uri FROM PlaylistTrack t WHERE t.playlist.id = :playlistId AND t.uriHash IN :uriHashes")
+    List<String> findUrisByUriHashIn(Long playlistId, Collection<Long> uriHashes);
+
+    /**
+     * Every track a user has saved, for building the search index.
+     */
+    @Query("SELECT new com.discord.bot.music.model.PlaylistSearchHit("
+            + "p.name, t.title, t.author, t.uri, t.durationMs) "
+            + "FROM PlaylistTrack t JOIN t.playlist p WHERE p.userId = :userId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    List<PlaylistSearchHit> findSearchHitsByUserId(String userId);
+
+    @Query("SELECT MAX(t.position) FROM PlaylistTrack t WHERE t.playlist.id = :playlistId")
+    Optional<Integer> findMaxPosition(Long playlistId);
+
+    @Query("SELECT t.id FROM PlaylistTrack t WHERE t.playlist.id = :playlistId ORDER BY t.position")
+    List<Long> findIdsByPlaylistIdOrderByPosition(Long playlistId);
+
     void deleteByPlaylistIdAndUri(Long playlistId, String uri);
 
+    long deleteByIdAndPlaylistId(Long id, Long playlistId);
+
     int countByPlaylistId(Long playlistId);
+
+    int countByPlaylistIdAndPositionLessThan(Long playlistId, int position);
+
+    @Query("SELECT t.playlist.id AS playlistId, COUNT(t) AS trackCount FROM PlaylistTrack t "
+            + "WHERE t.playlist.id IN :playlistIds GROUP BY t.playlist.id")
+    List<TrackCount> countByPlaylistIds(Collection<Long> playlistIds);
+
+    interface TrackCount {
+
+        Long getPlaylistId();
+
+        long getTrackCount();
+    }
+
+    boolean existsByPlaylistId(Long playlistId);
 }
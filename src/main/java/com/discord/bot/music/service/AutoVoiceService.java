@@ -272,27 +272,15 @@ public class AutoVoiceService {
         }
 
         try {
-            // Deny everyone from connecting, except the owner
-            VoiceChannelManager manager = voiceChannel.getManager();
-
-            // Deny @everyone connect permission
-            manager = manager.putPermissionOverride(
-                    guild.getPublicRole(),
-                    null,
-                    EnumSet.of(Permission.VOICE_CONNECT)
-            );
-
-            // Allow owner full permissions
-            Member owner = guild.getMemberById(tempChannel.getOwnerId());
-            if (owner != null) {
-                manager = manager.putPermissionOverride(
-                        owner,
-                        EnumSet.of(Permission.VOICE_CONNECT, Permission.VIEW_CHANNEL),
-                        null
-                );
-            }
-
-            manager.queue();
+            // The owner is usually not in the member cache (only members in
+            // voice are), so look them up; the lock still applies without them
+            guild.retrieveMemberById(tempChannel.getOwnerId()).queue(
+                    owner -> applyLock(guild, voiceChannel, owner),
+                    error -> {
+                        log.warn("Owner {} of temp channel {} not found, locking without them: {}",
+                                tempChannel.getOwnerId(), channelId, error.getMessage());
+                        applyLock(guild, voiceChannel, null);
+                    });
 
             tempChannel.setIsLocked(true);
             tempVoiceChannelRepository.save(tempChannel);
@@ -304,6 +292,30 @@ public class AutoVoiceService {
         }
     }
 
+    /**
+     * Deny everyone from connecting, except the owner.
+     */
+    private void applyLock(Guild guild, VoiceChannel voiceChannel, Member owner) {
+        // Deny @everyone connect permission
+        VoiceChannelManager manager = voiceChannel.getManager().putPermissionOverride(
+                guild.getPublicRole(),
+                null,
+                EnumSet.of(Permission.VOICE_CONNECT)
+        );
+
+        // Allow owner full permissions
+        if (owner != null) {
+            manager = manager.putPermissionOverride(
+                    owner,
+                    EnumSet.of(Permission.VOICE_CONNECT, Permission.VIEW_CHANNEL),
+                    null
+            );
+        }
+
+        manager.queue(null, error -> log.error("Failed to lock temp channel {}: {}",
+                voiceChannel.getId(), error.getMessage()));
+    }
+
     /**
      * Unlock a temp channel.
      */
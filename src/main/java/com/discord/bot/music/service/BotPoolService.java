@@ -0,0 +1,93 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.config.BotInstanceFactory;
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.audio.BotInstancePool;
+import dev.arbjerg.lavalink.client.Helpers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime administration of the bot pool: adds bots from new tokens and
+ * retires existing ones without restarting the application.
+ */
+@Service
+public class BotPoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(BotPoolService.class);
+
+    private final BotInstancePool botInstancePool;
+    private final BotInstanceFactory botInstanceFactory;
+
+    public BotPoolService(BotInstancePool botInstancePool, BotInstanceFactory botInstanceFactory) {
+        this.botInstancePool = botInstancePool;
+        this.botInstanceFactory = botInstanceFactory;
+    }
+
+    /**
+     * Log in a new secondary bot and register it in the pool.
+     *
+     * @throws IllegalArgumentException if the token is blank, malformed or
+     *                                  already in use
+     * @throws IllegalStateException    if the bot fails to log in
+     */
+    public synchronized BotInstance addBot(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Bot token is required");
+        }
+        token = token.trim();
+
+        long botId;
+        try {
+            botId = Helpers.getUserIdFromToken(token);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed bot token");
+        }
+        if (botInstancePool.containsBot(botId)) {
+            throw new IllegalArgumentException("Bot " + botId + " is already in the pool");
+        }
+
+        int index = botInstancePool.reserveIndex();
+        log.info("Adding secondary bot #{} at runtime...", index);
+        try {
+            BotInstance bot = botInstanceFactory.createSecondary(token, index);
+            botInstancePool.register(bot);
+            log.info("🎵 Secondary Bot #{} [{}]: Connected at runtime!", index, bot.getBotName());
+            return bot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while logging in bot #" + index);
+        } catch (Exception e) {
+            log.error("❌ Failed to add secondary bot #{}: {}", index, e.getMessage());
+            throw new IllegalStateException("Failed to log in bot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retire a secondary bot once its current sessions end.
+     *
+     * @return the retired bot, or null if no secondary bot has this index
+     */
+    public BotInstance retireBot(int index) {
+        return botInstancePool.retire(index);
+    }
+
+    /**
+     * Summary of every bot in the pool.
+     */
+    public List<Map<String, Object>> describeBots() {
+        return botInstancePool.getAllInstances().stream()
+                .map(bot -> Map.<String, Object>of(
+                        "index", bot.getIndex(),
+                        "name", bot.getBotName(),
+                        "id", bot.getBotId(),
+                        "primary", bot.isPrimary(),
+                        "draining", bot.isDraining(),
+                        "sessions", bot.getConnectedCount()))
+                .toList();
+    }
+}
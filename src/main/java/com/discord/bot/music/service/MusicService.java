@@ -2,18 +2,23 @@ package com.discord.bot.music.service;
 
 import com.discord.bot.music.audio.BotInstance;
 import com.discord.bot.music.audio.GuildMusicManager;
+import com.discord.bot.music.audio.PendingPlayback;
+import com.discord.bot.music.audio.PlayerStateMirror;
 import com.discord.bot.music.model.GuildMusicQueue;
+import com.discord.bot.music.model.PlaylistSnapshot;
 import com.discord.bot.music.model.TrackInfo;
 import dev.arbjerg.lavalink.client.Link;
 import dev.arbjerg.lavalink.client.player.*;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.GuildVoiceState;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -35,8 +40,11 @@ public class MusicService {
 
     /**
      * Play all tracks from a stored playlist.
+     * If every bot is busy, the resolved tracks are parked in the pool waitlist
+     * and {@code notifyChannel} is told once a bot takes over.
      */
-    public String playPlaylist(Guild guild, Member member, String targetUserId, String playlistName) {
+    public String playPlaylist(Guild guild, Member member, String targetUserId, String playlistName,
+            MessageChannel notifyChannel) {
         // Check if user is in a voice channel
         GuildVoiceState voiceState = member.getVoiceState();
         if (voiceState == null || !voiceState.inAudioChannel()) {
@@ -46,10 +54,9 @@ public class MusicService {
         AudioChannelUnion channel = voiceState.getChannel();
         long guildId = guild.getIdLong();
         long channelId = channel.getIdLong();
-        String userId = member.getId();
 
         // Get tracks from DB
-        List<com.discord.bot.music.entity.PlaylistTrack> dbTracks = playlistService.getPlaylistTracks(targetUserId,
+        List<PlaylistSnapshot.Track> dbTracks = playlistService.getPlaylistTracks(targetUserId,
                 playlistName);
         if (dbTracks.isEmpty()) {
             return "❌ Playlist **" + playlistName + "** is empty or does not exist.";
@@ -58,53 +65,32 @@ public class MusicService {
         // Find or assign a bot
         BotInstance bot = guildMusicManager.findOrAssignBot(guildId, channelId);
         if (bot == null) {
-            return "❌ Tất cả bot đều đang bận! Hãy dùng `/stop` ở channel khác.";
+            return waitWithPlaylist(channel, member, dbTracks, playlistName, notifyChannel);
         }
 
         GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
         Link link = bot.getLavalinkClient().getOrCreateLink(guildId);
-        bot.getJda().getDirectAudioController().connect(channel);
+        bot.getJdaForGuild(guildId).getDirectAudioController().connect(channel);
 
         int addedCount = 0;
         int failedCount = 0;
 
-        for (com.discord.bot.music.entity.PlaylistTrack dbTrack : dbTracks) {
-            try {
-                LavalinkLoadResult result = link.loadItem(dbTrack.getUri()).block();
-                if (result instanceof TrackLoaded trackLoaded) {
-                    Track track = trackLoaded.getTrack();
-                    TrackInfo info = GuildMusicManager.toTrackInfo(track, userId, member.getEffectiveName());
-
-                    if (queue.getCurrentTrack() == null) {
-                        queue.setCurrentTrack(info);
-                        link.createOrUpdatePlayer()
-                                .setTrack(track)
-                                .setPaused(false)
-                                .subscribe();
-                    } else {
-                        queue.enqueue(info);
-                    }
-                    addedCount++;
-                } else if (result instanceof SearchResult searchResult && !searchResult.getTracks().isEmpty()) {
-                    Track track = searchResult.getTracks().get(0);
-                    TrackInfo info = GuildMusicManager.toTrackInfo(track, userId, member.getEffectiveName());
-
-                    if (queue.getCurrentTrack() == null) {
-                        queue.setCurrentTrack(info);
-                        link.createOrUpdatePlayer()
-                                .setTrack(track)
-                                .setPaused(false)
-                                .subscribe();
-                    } else {
-                        queue.enqueue(info);
-                    }
-                    addedCount++;
-                } else {
-                    failedCount++;
-                }
-            } catch (Exception e) {
+        for (PlaylistSnapshot.Track dbTrack : dbTracks) {
+            TrackInfo info = resolvePlaylistTrack(bot, dbTrack, member);
+            if (info == null) {
                 failedCount++;
+                continue;
+            }
+            if (queue.getCurrentTrack() == null) {
+                queue.setCurrentTrack(info);
+                link.createOrUpdatePlayer()
+                        .setTrack(info.getLavalinkTrack())
+                        .setPaused(false)
+                        .subscribe();
+            } else {
+                queue.enqueue(info);
             }
+            addedCount++;
         }
 
         String message = "🎶 Loaded **" + addedCount + "** tracks from playlist **" + playlistName + "**.";
@@ -114,10 +100,55 @@ public class MusicService {
         return message;
     }
 
+    /**
+     * Resolve the tracks of a stored playlist with the primary bot and park
+     * them in the pool waitlist until a bot is released in this guild.
+     */
+    private String waitWithPlaylist(AudioChannelUnion channel, Member member, List<PlaylistSnapshot.Track> dbTracks,
+            String playlistName, MessageChannel notifyChannel) {
+        BotInstance primaryBot = guildMusicManager.getBotPool().getPrimaryBot();
+        if (primaryBot == null) {
+            return busyMessage() + "Hãy dùng `/stop` ở channel khác hoặc invite thêm bot bằng `/invite`.";
+        }
+
+        List<TrackInfo> tracks = new ArrayList<>();
+        for (PlaylistSnapshot.Track dbTrack : dbTracks) {
+            TrackInfo info = resolvePlaylistTrack(primaryBot, dbTrack, member);
+            if (info != null) {
+                tracks.add(info);
+            }
+        }
+        if (tracks.isEmpty()) {
+            return "❌ None of the tracks in playlist **" + playlistName + "** could be loaded.";
+        }
+        return park(channel, member, tracks, notifyChannel);
+    }
+
+    /**
+     * Load one stored track, or null if it no longer resolves.
+     */
+    private TrackInfo resolvePlaylistTrack(BotInstance bot, PlaylistSnapshot.Track dbTrack, Member member) {
+        try {
+            LavalinkLoadResult result = guildMusicManager.loadItem(bot, dbTrack.uri()).block();
+            Track track = null;
+            if (result instanceof TrackLoaded trackLoaded) {
+                track = trackLoaded.getTrack();
+            } else if (result instanceof SearchResult searchResult && !searchResult.getTracks().isEmpty()) {
+                track = searchResult.getTracks().get(0);
+            }
+            return track != null ? GuildMusicManager.toTrackInfo(track, member.getId(), member.getEffectiveName())
+                    : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Load and play a track or add it to the queue.
+     * If every bot is busy, the resolved tracks are parked in the pool waitlist
+     * and {@code notifyChannel} is told once a bot takes over.
      */
-    public String play(Guild guild, Member member, String query) {
+    public String play(Guild guild, Member member, String query, MessageChannel notifyChannel) {
         // Check if user is in a voice channel
         GuildVoiceState voiceState = member.getVoiceState();
         if (voiceState == null || !voiceState.inAudioChannel()) {
@@ -128,30 +159,28 @@ public class MusicService {
         long guildId = guild.getIdLong();
         long channelId = channel.getIdLong();
 
+        // Determine search prefix
+        String searchQuery = query;
+        if (!query.startsWith("http://") && !query.startsWith("https://")) {
+            searchQuery = "ytsearch:" + query;
+        } else {
+            searchQuery = stripYoutubeMixParams(searchQuery);
+        }
+
         // Find or assign a bot to this channel
         BotInstance bot = guildMusicManager.findOrAssignBot(guildId, channelId);
         if (bot == null) {
-            int total = guildMusicManager.getBotPool().getTotalCount();
-            return "❌ Tất cả bot đều đang bận! (" + total + "/" + total + " đang phát nhạc). "
-                    + "Hãy dùng `/stop` ở channel khác hoặc invite thêm bot bằng `/invite`.";
+            return waitForFreeBot(channel, member, searchQuery, notifyChannel);
         }
 
         GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
         Link link = bot.getLavalinkClient().getOrCreateLink(guildId);
 
         // Join voice channel using the assigned bot's JDA
-        bot.getJda().getDirectAudioController().connect(channel);
-
-        // Determine search prefix
-        String searchQuery = query;
-        if (!query.startsWith("http://") && !query.startsWith("https://")) {
-            searchQuery = "ytsearch:" + query;
-        } else {
-            searchQuery = stripYoutubeMixParams(searchQuery);
-        }
+        bot.getJdaForGuild(guildId).getDirectAudioController().connect(channel);
 
         try {
-            LavalinkLoadResult result = link.loadItem(searchQuery).block();
+            LavalinkLoadResult result = guildMusicManager.loadItem(bot, searchQuery).block();
 
             if (result == null) {
                 return "❌ Failed to load track. Please try again.";
@@ -164,6 +193,116 @@ public class MusicService {
         }
     }
 
+    /**
+     * Resolve the query with the primary bot and park the tracks in the pool
+     * waitlist until a bot is released in this guild.
+     */
+    private String waitForFreeBot(AudioChannelUnion channel, Member member, String searchQuery,
+            MessageChannel notifyChannel) {
+        BotInstance primaryBot = guildMusicManager.getBotPool().getPrimaryBot();
+        if (primaryBot == null) {
+            return busyMessage() + "Hãy dùng `/stop` ở channel khác hoặc invite thêm bot bằng `/invite`.";
+        }
+
+        long guildId = channel.getGuild().getIdLong();
+        long channelId = channel.getIdLong();
+
+        List<TrackInfo> tracks;
+        try {
+            LavalinkLoadResult result = guildMusicManager.loadItem(primaryBot, searchQuery).block();
+            tracks = toTrackInfos(result, member);
+        } catch (Exception e) {
+            log.error("Error resolving waiting request for guild {} channel {}: {}",
+                    guildId, channelId, e.getMessage(), e);
+            return "❌ Error loading track: " + e.getMessage();
+        }
+
+        if (tracks.isEmpty()) {
+            return "❌ No matches found.";
+        }
+        return park(channel, member, tracks, notifyChannel);
+    }
+
+    /**
+     * Park resolved tracks in the pool waitlist for the member's channel.
+     */
+    private String park(AudioChannelUnion channel, Member member, List<TrackInfo> tracks,
+            MessageChannel notifyChannel) {
+        PendingPlayback pending = new PendingPlayback(channel.getGuild().getIdLong(), channel.getIdLong(),
+                member.getId(), tracks,
+                (bot, waitingTracks) -> startWaitingPlayback(bot, channel, waitingTracks, member, notifyChannel));
+        int position = guildMusicManager.getBotPool().enqueueWaiting(pending);
+        if (position < 0) {
+            return busyMessage() + "Hàng chờ đã đầy, hãy thử lại sau.";
+        }
+
+        return "⏳ Tất cả bot đều đang bận! Đã xếp **" + tracks.size() + "** bài vào hàng chờ (vị trí #"
+                + position + "). Bot sẽ tự vào channel khi rảnh.";
+    }
+
+    private String busyMessage() {
+        int total = guildMusicManager.getBotPool().getTotalCount();
+        return "❌ Tất cả bot đều đang bận! (" + total + "/" + total + " đang phát nhạc). ";
+    }
+
+    /**
+     * Waitlist hand-over: connect the freed bot and start the parked tracks.
+     */
+    private void startWaitingPlayback(BotInstance bot, AudioChannelUnion channel, List<TrackInfo> tracks,
+            Member member, MessageChannel notifyChannel) {
+        long guildId = channel.getGuild().getIdLong();
+        long channelId = channel.getIdLong();
+
+        // Nobody left to listen: pass the bot on to the next waiting channel
+        boolean hasListeners = channel.getMembers().stream().anyMatch(m -> !m.getUser().isBot());
+        if (!hasListeners) {
+            log.info("Waiting channel {} in guild {} is empty, skipping hand-over", channelId, guildId);
+            guildMusicManager.cleanup(guildId, channelId);
+            return;
+        }
+
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        Link link = bot.getLavalinkClient().getOrCreateLink(guildId);
+        bot.getJdaForGuild(guildId).getDirectAudioController().connect(channel);
+
+        for (TrackInfo info : tracks) {
+            if (queue.getCurrentTrack() == null) {
+                queue.setCurrentTrack(info);
+                link.createOrUpdatePlayer()
+                        .setTrack(info.getLavalinkTrack())
+                        .setPaused(false)
+                        .subscribe();
+            } else {
+                queue.enqueue(info);
+            }
+        }
+
+        if (notifyChannel != null) {
+            notifyChannel.sendMessage(member.getAsMention() + " 🎶 **" + bot.getBotName()
+                    + "** đã rảnh và vào **" + channel.getName() + "**, đang phát " + tracks.size()
+                    + " bài từ hàng chờ.").queue();
+        }
+    }
+
+    /**
+     * Flatten a load result into the tracks a play request would enqueue.
+     */
+    private List<TrackInfo> toTrackInfos(LavalinkLoadResult result, Member member) {
+        List<Track> tracks;
+        if (result instanceof TrackLoaded trackLoaded) {
+            tracks = List.of(trackLoaded.getTrack());
+        } else if (result instanceof PlaylistLoaded playlistLoaded) {
+            tracks = playlistLoaded.getTracks();
+        } else if (result instanceof SearchResult searchResult && !searchResult.getTracks().isEmpty()) {
+            tracks = List.of(searchResult.getTracks().get(0));
+        } else {
+            tracks = List.of();
+        }
+        return tracks.stream()
+                .map(track -> GuildMusicManager.toTrackInfo(track, member.getId(), member.getEffectiveName()))
+                .toList();
+    }
+
     private String handleLoadResult(LavalinkLoadResult result, GuildMusicQueue queue,
             Link link, long guildId, long channelId, Member member) {
         String userId = member.getId();
@@ -263,7 +402,7 @@ public class MusicService {
                 .setTrack(null)
                 .subscribe();
 
-        bot.getJda().getDirectAudioController().disconnect(guild);
+        bot.getJdaForGuild(guildId).getDirectAudioController().disconnect(guild);
         guildMusicManager.cleanup(guildId, channelId);
 
         return "⏹️ Stopped playback and cleared the queue.";
@@ -410,6 +549,72 @@ public class MusicService {
         return "▶️ Resumed: **" + queue.getCurrentTrack().getTitle() + "**";
     }
 
+    /**
+     * Show the current track with a progress bar. Position comes from the
+     * local player-state mirror only; Lavalink is not queried.
+     */
+    public String nowPlaying(Guild guild, Member member) {
+        GuildVoiceState voiceState = member.getVoiceState();
+        if (voiceState == null || !voiceState.inAudioChannel()) {
+            return "❌ You must be in a voice channel to use this command!";
+        }
+
+        long guildId = guild.getIdLong();
+        long channelId = voiceState.getChannel().getIdLong();
+
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        TrackInfo current = queue.getCurrentTrack();
+        if (current == null) {
+            return "❌ Nothing is playing right now.";
+        }
+
+        StringBuilder sb = new StringBuilder()
+                .append(queue.isPaused() ? "⏸️" : "🎵")
+                .append(" **").append(current.getTitle()).append("** by ").append(current.getAuthor())
+                .append("\n");
+
+        PlayerStateMirror.Snapshot state = guildMusicManager.getPlayerState(guildId, channelId);
+        if (state != null) {
+            long position = state.interpolatedPositionMs(queue.isPaused(), current.getDurationMs());
+            sb.append(progressBar(position, current.getDurationMs()))
+                    .append(" `").append(formatTime(position)).append(" / ")
+                    .append(formatTime(current.getDurationMs())).append("`");
+            if (!state.connected()) {
+                sb.append(" ⚠️ voice disconnected");
+            } else if (state.pingMs() >= 0) {
+                sb.append(" | 📶 ").append(state.pingMs()).append("ms");
+            }
+        } else {
+            sb.append("`").append(formatTime(current.getDurationMs())).append("`");
+        }
+
+        sb.append("\nRequested by ").append(current.getRequesterName());
+        if (!queue.isEmpty()) {
+            sb.append(" | ").append(queue.size()).append(" track(s) up next");
+        }
+        return sb.toString();
+    }
+
+    private String progressBar(long positionMs, long durationMs) {
+        final int width = 15;
+        int filled = durationMs > 0 ? (int) Math.min(width - 1, positionMs * width / durationMs) : 0;
+        StringBuilder bar = new StringBuilder();
+        for (int i = 0; i < width; i++) {
+            bar.append(i == filled ? "🔘" : "▬");
+        }
+        return bar.toString();
+    }
+
+    private String formatTime(long ms) {
+        long totalSeconds = ms / 1000;
+        long hours = totalSeconds / 3600;
+        long minutes = (totalSeconds % 3600) / 60;
+        long seconds = totalSeconds % 60;
+        return hours > 0
+                ? String.format("%d:%02d:%02d", hours, minutes, seconds)
+                : String.format("%d:%02d", minutes, seconds);
+    }
+
     /**
      * Get the currently playing track info.
      */
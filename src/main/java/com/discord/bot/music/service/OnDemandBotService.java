@@ -0,0 +1,305 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.config.BotInstanceFactory;
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.audio.BotInstancePool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy mode for secondary bots (discord.pool.lazy.enabled). Secondary tokens
+ * start out dormant and a bot is logged in only when a guild runs out of free
+ * bots; bots idle for longer than the idle timeout are logged out again.
+ * The number of secondaries kept online is driven by recent demand: the peak
+ * number of busy secondaries seen in the demand window, plus headroom.
+ */
+@Service
+public class OnDemandBotService {
+
+    private static final Logger log = LoggerFactory.getLogger(OnDemandBotService.class);
+
+    private final BotInstancePool botInstancePool;
+    private final BotInstanceFactory botInstanceFactory;
+
+    private final boolean enabled;
+    private final long idleTimeoutMs;
+    private final long demandWindowMs;
+    private final int headroom;
+
+    /** Every secondary token handed to lazy mode. Guarded by {@code this}. */
+    private final List<Slot> slots = new ArrayList<>();
+    /** Busy secondary counts sampled on every check, oldest first. Guarded by {@code this}. */
+    private final Deque<long[]> busySamples = new ArrayDeque<>();
+
+    private final Timer coldStart;
+    private final Counter idleLogouts;
+
+    private final ScheduledExecutorService checker;
+    private final ExecutorService loginExecutor;
+
+    public OnDemandBotService(BotInstancePool botInstancePool, BotInstanceFactory botInstanceFactory,
+            MeterRegistry meterRegistry,
+            @Value("${discord.pool.lazy.enabled:false}") boolean enabled,
+            @Value("${discord.pool.lazy.idle-timeout-ms:600000}") long idleTimeoutMs,
+            @Value("${discord.pool.lazy.demand-window-ms:1800000}") long demandWindowMs,
+            @Value("${discord.pool.lazy.headroom:1}") int headroom,
+            @Value("${discord.pool.lazy.check-interval-ms:30000}") long checkIntervalMs,
+            @Value("${discord.startup.parallelism:4}") int parallelism) {
+        this.botInstancePool = botInstancePool;
+        this.botInstanceFactory = botInstanceFactory;
+        this.enabled = enabled;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.demandWindowMs = demandWindowMs;
+        this.headroom = headroom;
+
+        this.coldStart = Timer.builder("bot.pool.cold_start")
+                .description("Time from a guild running out of bots to a dormant bot joining the pool")
+                .register(meterRegistry);
+        this.idleLogouts = Counter.builder("bot.pool.idle_logouts")
+                .description("Secondary bots logged out after staying idle")
+                .register(meterRegistry);
+        Gauge.builder("bot.pool.secondaries.online", this, OnDemandBotService::getOnlineCount)
+                .description("Lazy secondary bots currently logged in or logging in")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.loginExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                    new CustomizableThreadFactory("bot-wake-"));
+            this.checker = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("bot-idle-check-"));
+            checker.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+            // The pool calls back under its own lock; hop threads so the two
+            // locks are only ever taken in one order
+            botInstancePool.setDemandListener(guildId -> checker.execute(() -> onDemand(guildId)));
+            log.info("Lazy secondary bots enabled: idle timeout {} ms, demand window {} ms, headroom {}",
+                    idleTimeoutMs, demandWindowMs, headroom);
+        } else {
+            this.loginExecutor = null;
+            this.checker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Keep a secondary token dormant until it is needed.
+     */
+    public synchronized void addDormant(String token, int index) {
+        slots.add(new Slot(token, index));
+        log.info("Secondary bot #{} is dormant until demand requires it", index);
+    }
+
+    /**
+     * A guild ran out of free bots: wake a dormant bot that is (or may be) a
+     * member of it, unless one is already on its way.
+     */
+    public synchronized void onDemand(long guildId) {
+        Slot candidate = null;
+        for (Slot slot : slots) {
+            if (!slot.mayServe(guildId)) {
+                continue;
+            }
+            if (slot.starting) {
+                return;
+            }
+            if (slot.live != null) {
+                continue;
+            }
+            // Prefer bots known to be in the guild over never-seen ones
+            if (candidate == null || (candidate.lastGuilds == null && slot.lastGuilds != null)) {
+                candidate = slot;
+            }
+        }
+        if (candidate != null) {
+            wake(candidate, "guild " + guildId + " ran out of bots");
+        }
+    }
+
+    private void wake(Slot slot, String reason) {
+        slot.starting = true;
+        long requestedAt = System.nanoTime();
+        log.info("Waking secondary bot #{}: {}", slot.index, reason);
+
+        loginExecutor.execute(() -> {
+            BotInstance bot = null;
+            try {
+                bot = botInstanceFactory.createSecondary(slot.token, slot.index);
+                botInstancePool.register(bot);
+                long elapsed = System.nanoTime() - requestedAt;
+                coldStart.record(elapsed, TimeUnit.NANOSECONDS);
+                log.info("🎵 Secondary Bot #{} [{}]: Woken in {} ms", slot.index, bot.getBotName(),
+                        elapsed / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("❌ Interrupted while waking secondary bot #{}", slot.index);
+            } catch (Exception e) {
+                log.error("❌ Failed to wake secondary bot #{}: {}", slot.index, e.getMessage());
+            } finally {
+                synchronized (this) {
+                    if (bot != null) {
+                        slot.live = bot;
+                        slot.lastGuilds = sorted(bot.snapshotGuilds());
+                    }
+                    slot.starting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Periodic check: sample demand, pre-warm or log out idle bots to match
+     * it, and retry waking for guilds whose channels are still waiting.
+     */
+    private void check() {
+        try {
+            synchronized (this) {
+                forgetRemovedBots();
+                int target = recordDemandAndGetTarget();
+                int online = getOnlineCount();
+
+                if (online < target) {
+                    wakeAnyDormant(target - online);
+                } else if (online > target) {
+                    logOutIdle(online - target);
+                }
+            }
+            for (Long guildId : botInstancePool.getWaitingGuildIds()) {
+                if (botInstancePool.getAvailableCount(guildId) == 0) {
+                    onDemand(guildId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Lazy bot check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bots that left the pool (drained after an idle logout, or retired by an
+     * admin) no longer count as online. Only our own logouts return to
+     * dormant; an admin retirement removes the token from lazy mode.
+     */
+    private void forgetRemovedBots() {
+        slots.removeIf(slot -> {
+            if (slot.live == null || botInstancePool.containsBot(slot.live.getBotId())) {
+                return false;
+            }
+            boolean loggedOutByUs = slot.loggingOut;
+            slot.live = null;
+            slot.loggingOut = false;
+            if (!loggedOutByUs) {
+                log.info("Secondary bot #{} was retired, removing it from lazy mode", slot.index);
+            }
+            return !loggedOutByUs;
+        });
+    }
+
+    private int recordDemandAndGetTarget() {
+        long now = System.currentTimeMillis();
+        long busy = slots.stream()
+                .filter(slot -> slot.live != null && slot.live.getConnectedCount() > 0)
+                .count();
+        busySamples.addLast(new long[] { now, busy });
+        while (!busySamples.isEmpty() && busySamples.peekFirst()[0] < now - demandWindowMs) {
+            busySamples.pollFirst();
+        }
+
+        long peak = busySamples.stream().mapToLong(sample -> sample[1]).max().orElse(0);
+        return peak == 0 ? 0 : (int) Math.min(slots.size(), peak + headroom);
+    }
+
+    private void wakeAnyDormant(int count) {
+        for (Slot slot : slots) {
+            if (count == 0) {
+                return;
+            }
+            if (slot.live == null && !slot.starting) {
+                wake(slot, "pre-warming for recent demand");
+                count--;
+            }
+        }
+    }
+
+    private void logOutIdle(int count) {
+        for (Slot slot : slots) {
+            if (count == 0) {
+                return;
+            }
+            BotInstance bot = slot.live;
+            if (bot == null || slot.loggingOut || bot.getIdleMillis() < idleTimeoutMs) {
+                continue;
+            }
+            log.info("Logging out secondary bot #{} ({}) after {} ms idle", slot.index, bot.getBotName(),
+                    bot.getIdleMillis());
+            slot.loggingOut = true;
+            slot.lastGuilds = sorted(bot.snapshotGuilds());
+            // Shuts down at once if still idle, otherwise after its new session
+            botInstancePool.retire(slot.index);
+            idleLogouts.increment();
+            count--;
+        }
+    }
+
+    /**
+     * Secondary bots logged in or logging in, excluding ones being logged out.
+     */
+    public synchronized int getOnlineCount() {
+        return (int) slots.stream()
+                .filter(slot -> slot.starting || (slot.live != null && !slot.loggingOut))
+                .count();
+    }
+
+    private static long[] sorted(long[] guildIds) {
+        Arrays.sort(guildIds);
+        return guildIds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (checker != null) {
+            checker.shutdownNow();
+            loginExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * One secondary token and the bot currently logged in with it, if any.
+     */
+    private static class Slot {
+        private final String token;
+        private final int index;
+        private BotInstance live;
+        private boolean starting;
+        private boolean loggingOut;
+        /** Sorted guild IDs from the last session, or null if never logged in. */
+        private long[] lastGuilds;
+
+        Slot(String token, int index) {
+            this.token = token;
+            this.index = index;
+        }
+
+        boolean mayServe(long guildId) {
+            return lastGuilds == null || Arrays.binarySearch(lastGuilds, guildId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistPage;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of playlist reads, in front of the playlist repositories.
+ * Holds one immutable snapshot per (userId, name), including "no such
+ * playlist", and the first /playlist-list page per user. Shared
+ * playlists played by other users through /play-playlist are read from the
+ * database once instead of on every play.
+ *
+ * {@link PlaylistService} invalidates the entries of a playlist and its
+ * owner's listing whenever it changes them. Entries also expire after the
+ * TTL, which bounds staleness if another process writes to the same
+ * database.
+ */
+@Component
+public class PlaylistCache {
+
+    private record PlaylistKey(String userId, String name) {
+    }
+
+    private record ListingKey(String userId) {
+    }
+
+    private record Entry(Object value, long loadedAtMillis) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Map<Object, Entry> entries;
+
+    /**
+     * Bumped by every invalidation. A load that raced with an invalidation
+     * may have read the old rows, so its result is returned but not cached.
+     */
+    private long generation;
+
+    private final Counter playlistHits;
+    private final Counter playlistMisses;
+    private final Counter listingHits;
+    private final Counter listingMisses;
+
+    public PlaylistCache(MeterRegistry meterRegistry,
+            @Value("${playlist.cache.max-entries:1000}") int maxEntries,
+            @Value("${playlist.cache.ttl-ms:600000}") long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > PlaylistCache.this.maxEntries;
+            }
+        };
+
+        this.playlistHits = requests(meterRegistry, "playlist", "hit");
+        this.playlistMisses = requests(meterRegistry, "playlist", "miss");
+        this.listingHits = requests(meterRegistry, "listing", "hit");
+        this.listingMisses = requests(meterRegistry, "listing", "miss");
+        hitRatio(meterRegistry, "playlist", playlistHits, playlistMisses);
+        hitRatio(meterRegistry, "listing", listingHits, listingMisses);
+        Gauge.builder("playlist.cache.size", this, PlaylistCache::size)
+                .description("Playlist snapshots and listings currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Snapshot of a user's playlist, loaded on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<PlaylistSnapshot> getPlaylist(String userId, String name,
+            Supplier<Optional<PlaylistSnapshot>> loader) {
+        return (Optional<PlaylistSnapshot>) get(new PlaylistKey(userId, name), loader, playlistHits, playlistMisses);
+    }
+
+    /**
+     * First /playlist-list page of a user, loaded on a miss.
+     */
+    public PlaylistPage getListing(String userId, Supplier<PlaylistPage> loader) {
+        return (PlaylistPage) get(new ListingKey(userId), loader, listingHits, listingMisses);
+    }
+
+    /**
+     * Drop a playlist and its owner's listing. Called when the playlist
+     * changes; repeated after the surrounding transaction commits so that
+     * no read of the pre-commit rows stays cached.
+     */
+    public void invalidate(String userId, String name) {
+        evict(userId, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId, name);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Object get(Object key, Supplier<?> loader, Counter hits, Counter misses) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAtMillis() < ttlMs) {
+                hits.increment();
+                return entry.value();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Object value = loader.get();
+        synchronized (this) {
+            if (maxEntries > 0 && generation == loadGeneration) {
+                entries.put(key, new Entry(value, System.currentTimeMillis()));
+            }
+        }
+        return value;
+    }
+
+    private synchronized void evict(String userId, String name) {
+        generation++;
+        entries.remove(new PlaylistKey(userId, name));
+        entries.remove(new ListingKey(userId));
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String region, String result) {
+        return Counter.builder("playlist.cache.requests")
+                .description("Playlist cache lookups")
+                .tag("region", region)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void hitRatio(MeterRegistry meterRegistry, String region, Counter hits, Counter misses) {
+        Gauge.builder("playlist.cache.hit_ratio", () -> {
+            double total = hits.count() + misses.count();
+            return total == 0 ? 0 : hits.count() / total;
+        })
+                .description("Share of playlist cache lookups answered from memory")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,325 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistSearchHit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index of the tracks each user has saved, for
+ * /playlist-search. Title and author are split into accent-free lowercase
+ * tokens ("Sơn Tùng M-TP" → son, tung, m, tp) and every query token matches
+ * the tokens it is a prefix of, so a search never scans the tracks table.
+ *
+ * A user's index is built from the database on their first search and then
+ * kept up to date by {@link PlaylistService}, which reports the tracks it
+ * adds and removes; changes are applied when their transaction commits.
+ * Whole user indexes are evicted least recently searched first once more
+ * than the configured number of tracks are indexed.
+ */
+@Component
+public class PlaylistSearchIndex {
+
+    /**
+     * Tracks matching a query: the first ones, sorted by playlist and title,
+     * and how many matched in total.
+     */
+    public record Result(List<PlaylistSearchHit> hits, int total) {
+    }
+
+    private static final Comparator<PlaylistSearchHit> ORDER = Comparator
+            .comparing(PlaylistSearchHit::playlistName)
+            .thenComparing(PlaylistSearchHit::title, String.CASE_INSENSITIVE_ORDER);
+
+    private final int maxTracks;
+
+    private final Map<String, UserIndex> users = new LinkedHashMap<>(16, 0.75f, true);
+    private long indexedTracks;
+
+    /**
+     * Users whose index is being built. An index whose build raced with a
+     * change of its user may have missed it, so it answers that one search
+     * but is not kept; changes of other users do not matter to it.
+     */
+    private final Map<String, Build> builds = new HashMap<>();
+
+    public PlaylistSearchIndex(MeterRegistry meterRegistry,
+            @Value("${playlist.search.max-tracks:100000}") int maxTracks) {
+        this.maxTracks = maxTracks;
+        Gauge.builder("playlist.search.indexed_tracks", this, PlaylistSearchIndex::indexedTracks)
+                .description("Saved tracks currently held in the playlist search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Search a user's saved tracks; every query token must match. The
+     * user's index is built with the loader if it is not in memory.
+     */
+    public Result search(String userId, String query, int limit, Supplier<List<PlaylistSearchHit>> loader) {
+        List<String> queryTokens = new ArrayList<>(tokens(query));
+        if (queryTokens.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        Build build;
+        long buildGeneration;
+        synchronized (this) {
+            UserIndex index = users.get(userId);
+            if (index != null) {
+                return index.search(queryTokens, limit);
+            }
+            build = builds.computeIfAbsent(userId, id -> new Build());
+            build.builders++;
+            buildGeneration = build.generation;
+        }
+
+        UserIndex index = new UserIndex();
+        boolean built = false;
+        try {
+            loader.get().forEach(index::add);
+            built = true;
+        } finally {
+            synchronized (this) {
+                if (built && build.generation == buildGeneration && index.size() <= maxTracks) {
+                    users.put(userId, index);
+                    indexedTracks += index.size();
+                    evictOverLimit();
+                }
+                if (--build.builders == 0) {
+                    builds.remove(userId);
+                }
+            }
+        }
+        synchronized (this) {
+            return index.search(queryTokens, limit);
+        }
+    }
+
+    /**
+     * Record tracks added to a user's playlists.
+     */
+    public void added(String userId, List<PlaylistSearchHit> tracks) {
+        afterCommit(userId, () -> {
+            UserIndex index = users.get(userId);
+            if (index != null) {
+                tracks.forEach(index::add);
+                indexedTracks += tracks.size();
+                evictOverLimit();
+            }
+        });
+    }
+
+    /**
+     * Record a track removed from a user's playlist. With duplicates in the
+     * playlist any one of them is dropped, as they are indistinguishable.
+     */
+    public void removed(String userId, String playlistName, String uri, String title) {
+        afterCommit(userId, () -> {
+            UserIndex index = users.get(userId);
+            if (index != null && index.remove(playlistName, uri, title)) {
+                indexedTracks--;
+            }
+        });
+    }
+
+    public synchronized long indexedTracks() {
+        return indexedTracks;
+    }
+
+    private void afterCommit(String userId, Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, change);
+                }
+            });
+        } else {
+            apply(userId, change);
+        }
+    }
+
+    private synchronized void apply(String userId, Runnable change) {
+        Build build = builds.get(userId);
+        if (build != null) {
+            build.generation++;
+        }
+        change.run();
+    }
+
+    private void evictOverLimit() {
+        Iterator<UserIndex> eldest = users.values().iterator();
+        while (indexedTracks > maxTracks && eldest.hasNext()) {
+            indexedTracks -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Index builds in flight for one user. Guarded by the enclosing index.
+     */
+    private static final class Build {
+
+        /** Bumped by every committed change of the user. */
+        private long generation;
+        private int builders;
+    }
+
+    /**
+     * Lowercase tokens of a text with accents removed, in order and without
+     * repeats.
+     */
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT).replace('đ', 'd'), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * One user's tracks and the postings from token to the tracks holding
+     * it. Guarded by the enclosing index once shared.
+     */
+    private static final class UserIndex {
+
+        private record Entry(PlaylistSearchHit track, String[] tokens) {
+        }
+
+        private final Map<Integer, Entry> entries = new HashMap<>();
+        private final TreeMap<String, Set<Integer>> postings = new TreeMap<>();
+        private int nextId;
+
+        void add(PlaylistSearchHit track) {
+            int id = nextId++;
+            Entry entry = new Entry(track, trackTokens(track.title(), track.author()));
+            entries.put(id, entry);
+            for (String token : entry.tokens()) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+            }
+        }
+
+        boolean remove(String playlistName, String uri, String title) {
+            String[] titleTokens = trackTokens(title, null);
+            Set<Integer> candidates = titleTokens.length == 0 ? entries.keySet()
+                    : postings.getOrDefault(titleTokens[0], Set.of());
+            for (Integer id : candidates) {
+                PlaylistSearchHit track = entries.get(id).track();
+                if (track.playlistName().equals(playlistName) && track.uri().equals(uri)) {
+                    for (String token : entries.remove(id).tokens()) {
+                        Set<Integer> ids = postings.get(token);
+                        ids.remove(id);
+                        if (ids.isEmpty()) {
+                            postings.remove(token);
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Collects the tracks of the most selective query token and checks
+         * the other tokens against each of them, keeping only the first
+         * results in a bounded heap.
+         */
+        Result search(List<String> queryTokens, int limit) {
+            Collection<Set<Integer>> narrowest = null;
+            int narrowestSize = Integer.MAX_VALUE;
+            for (String token : queryTokens) {
+                Collection<Set<Integer>> postingLists = withPrefix(token).values();
+                int size = 0;
+                for (Set<Integer> ids : postingLists) {
+                    size += ids.size();
+                }
+                if (size == 0) {
+                    return new Result(List.of(), 0);
+                }
+                if (size < narrowestSize) {
+                    narrowest = postingLists;
+                    narrowestSize = size;
+                }
+            }
+
+            int total = 0;
+            PriorityQueue<PlaylistSearchHit> first = new PriorityQueue<>(limit + 1, ORDER.reversed());
+            // A track can hold several tokens with the prefix
+            Set<Integer> seen = narrowest.size() > 1 ? new HashSet<>() : null;
+            for (Set<Integer> ids : narrowest) {
+                for (Integer id : ids) {
+                    Entry entry = entries.get(id);
+                    if ((seen != null && !seen.add(id)) || !matchesAll(entry.tokens(), queryTokens)) {
+                        continue;
+                    }
+                    total++;
+                    first.add(entry.track());
+                    if (first.size() > limit) {
+                        first.poll();
+                    }
+                }
+            }
+            List<PlaylistSearchHit> hits = new ArrayList<>(first);
+            hits.sort(ORDER);
+            return new Result(hits, total);
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        private SortedMap<String, Set<Integer>> withPrefix(String prefix) {
+            return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        }
+
+        private static boolean matchesAll(String[] tokens, List<String> queryTokens) {
+            for (String queryToken : queryTokens) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(queryToken)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String[] trackTokens(String title, String author) {
+            Set<String> tokens = tokens(title);
+            tokens.addAll(tokens(author));
+            return tokens.toArray(String[]::new);
+        }
+    }
+}
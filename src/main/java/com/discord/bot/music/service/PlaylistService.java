@@ -2,17 +2,36 @@ package com.discord.bot.music.service;
 
 import com.discord.bot.music.entity.Playlist;
 import com.discord.bot.music.entity.PlaylistTrack;
+import com.discord.bot.music.model.PlaylistPage;
+import com.discord.bot.music.model.PlaylistSearchHit;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import com.discord.bot.music.model.PlaylistTrackRow;
 import com.discord.bot.music.model.TrackInfo;
+import com.discord.bot.music.model.TrackUri;
 import com.discord.bot.music.repository.PlaylistRepository;
 import com.discord.bot.music.repository.PlaylistTrackRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Database-backed playlist service for user playlist management.
@@ -23,19 +42,70 @@ public class PlaylistService {
 
     private static final Logger log = LoggerFactory.getLogger(PlaylistService.class);
 
+    /**
+     * Distance between the stored positions of neighbouring tracks. Tracks
+     * are ordered by position but numbered by rank, so a removal leaves the
+     * others untouched and a move takes the midpoint between its new
+     * neighbours. Positions are only respaced when a gap runs out.
+     */
+    static final int POSITION_GAP = 1024;
+
+    /** Rows (tracks or empty playlists) per /playlist-list page. */
+    static final int PAGE_SIZE = 15;
+
+    /** Matches shown by /playlist-search. */
+    private static final int SEARCH_RESULTS = 15;
+
+    /** Rows per JDBC batch when writing many tracks at once. */
+    static final int BATCH_SIZE = 100;
+
+    private static final String RESPACE_TRACK_SQL = "UPDATE playlist_tracks SET position = ? WHERE id = ?";
+
+    private static final String INSERT_TRACK_SQL = "INSERT INTO playlist_tracks "
+            + "(playlist_id, title, uri, uri_hash, author, duration_ms, position, encoded_track) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UNHASHED_TRACKS_SQL = "SELECT id, uri FROM playlist_tracks "
+            + "WHERE uri_hash IS NULL ORDER BY id LIMIT " + BATCH_SIZE * 10;
+
+    private static final String HASH_URI_SQL = "UPDATE playlist_tracks SET uri_hash = ? WHERE id = ?";
+
     private final PlaylistRepository playlistRepository;
     private final PlaylistTrackRepository playlistTrackRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlaylistCache playlistCache;
+    private final PlaylistSearchIndex playlistSearchIndex;
+    /** For cache misses: cached reads run outside a transaction so hits never touch the database. */
+    private final TransactionTemplate readOnlyTransaction;
+    /** For work that commits in chunks instead of in one transaction. */
+    private final TransactionTemplate chunkTransaction;
 
     public PlaylistService(PlaylistRepository playlistRepository,
-            PlaylistTrackRepository playlistTrackRepository) {
+            PlaylistTrackRepository playlistTrackRepository, JdbcTemplate jdbcTemplate,
+            PlaylistCache playlistCache, PlaylistSearchIndex playlistSearchIndex,
+            PlatformTransactionManager transactionManager) {
         this.playlistRepository = playlistRepository;
         this.playlistTrackRepository = playlistTrackRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.playlistCache = playlistCache;
+        this.playlistSearchIndex = playlistSearchIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Add a track to a user's playlist. Creates the playlist if it doesn't exist.
      */
     public String addTrack(String userId, String playlistName, TrackInfo trackInfo) {
+        return addTrack(userId, playlistName, trackInfo, false);
+    }
+
+    /**
+     * Add a track to a user's playlist, or with skipDuplicates leave it out
+     * if the playlist already has a track with the same canonical URI.
+     */
+    public String addTrack(String userId, String playlistName, TrackInfo trackInfo, boolean skipDuplicates) {
         if (trackInfo == null) {
             return "❌ No track is currently playing. Play a track first!";
         }
@@ -43,17 +113,14 @@ public class PlaylistService {
         log.info("Attempting to add track '{}' to playlist '{}' for user {}", trackInfo.getTitle(), playlistName,
                 userId);
 
-        Playlist playlist = playlistRepository.findByUserIdAndName(userId, playlistName)
-                .orElseGet(() -> {
-                    log.info("Playlist '{}' not found for user {}, creating new one.", playlistName, userId);
-                    Playlist newPlaylist = Playlist.builder()
-                            .userId(userId)
-                            .name(playlistName)
-                            .build();
-                    return playlistRepository.save(newPlaylist);
-                });
+        Playlist playlist = findOrCreatePlaylist(userId, playlistName);
+        if (skipDuplicates && containsUri(playlist.getId(), trackInfo.getUri())) {
+            return "⏭️ **" + trackInfo.getTitle() + "** is already in playlist **" + playlistName + "**.";
+        }
+        playlistCache.invalidate(userId, playlistName);
 
-        int nextPosition = playlistTrackRepository.countByPlaylistId(playlist.getId()) + 1;
+        int trackNumber = playlistTrackRepository.countByPlaylistId(playlist.getId()) + 1;
+        int nextPosition = nextPosition(playlist.getId());
 
         PlaylistTrack track = PlaylistTrack.builder()
                 .playlist(playlist)
@@ -61,11 +128,13 @@ public class PlaylistService {
                 .uri(trackInfo.getUri())
                 .author(trackInfo.getAuthor())
                 .durationMs(trackInfo.getDurationMs())
+                .encoded(trackInfo.getEncoded())
                 .position(nextPosition)
                 .build();
 
         try {
             playlistTrackRepository.save(track);
+            playlistSearchIndex.added(userId, List.of(searchHit(playlistName, trackInfo)));
             log.info("Successfully saved track '{}' at position {} in playlist '{}'",
                     trackInfo.getTitle(), nextPosition, playlistName);
         } catch (Exception e) {
@@ -74,89 +143,441 @@ public class PlaylistService {
         }
 
         return "✅ Added **" + trackInfo.getTitle() + "** to playlist **" + playlistName
-                + "** (Track #" + nextPosition + ")";
+                + "** (Track #" + trackNumber + ")";
+    }
+
+    /**
+     * Add many tracks to a user's playlist at once, e.g. a whole YouTube
+     * playlist. Creates the playlist if it doesn't exist. The playlist is
+     * looked up once, positions are assigned in memory and the rows are
+     * written with JDBC batch inserts in this transaction.
+     */
+    public String addTracks(String userId, String playlistName, List<TrackInfo> tracks) {
+        return addTracks(userId, playlistName, tracks, false);
+    }
+
+    /**
+     * Add many tracks to a user's playlist, with skipDuplicates leaving out
+     * the ones already in it or repeated in the list.
+     */
+    public String addTracks(String userId, String playlistName, List<TrackInfo> tracks, boolean skipDuplicates) {
+        if (tracks.isEmpty()) {
+            return "❌ No tracks to add.";
+        }
+
+        int added;
+        try {
+            added = appendTracks(userId, playlistName, tracks, skipDuplicates);
+        } catch (Exception e) {
+            log.error("Failed to save {} tracks to database: {}", tracks.size(), e.getMessage(), e);
+            // All or nothing: drop the batches that already went through
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return "❌ Error saving tracks to database: " + e.getMessage();
+        }
+
+        int skipped = tracks.size() - added;
+        return "✅ Added **" + added + "** tracks to playlist **" + playlistName + "**."
+                + (skipped > 0 ? " Skipped **" + skipped + "** duplicates." : "");
     }
 
     /**
-     * List all playlists for a user with track counts.
+     * Append tracks to a playlist with JDBC batch inserts, creating the
+     * playlist if needed. Failures propagate to the caller's transaction.
+     *
+     * @return number of tracks written
      */
-    @Transactional(readOnly = true)
-    public String listPlaylists(String userId) {
-        List<Playlist> playlists = playlistRepository.findByUserId(userId);
+    public int appendTracks(String userId, String playlistName, List<TrackInfo> tracks, boolean skipDuplicates) {
+        Playlist playlist = findOrCreatePlaylist(userId, playlistName);
+        long playlistId = playlist.getId();
+        if (skipDuplicates) {
+            tracks = withoutDuplicates(playlistId, tracks);
+            if (tracks.isEmpty()) {
+                return 0;
+            }
+        }
+        playlistCache.invalidate(userId, playlistName);
+        int firstPosition = nextPosition(playlistId);
+        int[] position = { firstPosition };
+        jdbcTemplate.batchUpdate(INSERT_TRACK_SQL, tracks, BATCH_SIZE, (ps, track) -> {
+            ps.setLong(1, playlistId);
+            ps.setString(2, track.getTitle());
+            ps.setString(3, track.getUri());
+            ps.setLong(4, TrackUri.hash(track.getUri()));
+            ps.setString(5, track.getAuthor());
+            ps.setLong(6, track.getDurationMs());
+            ps.setInt(7, position[0]);
+            ps.setString(8, track.getEncoded());
+            position[0] += POSITION_GAP;
+        });
+        playlistSearchIndex.added(userId, tracks.stream().map(track -> searchHit(playlistName, track)).toList());
+        log.info("Saved {} tracks at positions {}-{} in playlist '{}'", tracks.size(), firstPosition,
+                position[0] - POSITION_GAP, playlistName);
+        return tracks.size();
+    }
 
-        if (playlists.isEmpty()) {
-            return "📋 You don't have any playlists yet. Use `/playlist-add` to create one!";
+    /**
+     * Whether a playlist has a track with the same canonical URI. One probe
+     * of the (playlist_id, uri_hash) index; the URIs found are compared so a
+     * hash collision is not mistaken for a duplicate.
+     */
+    private boolean containsUri(Long playlistId, String uri) {
+        String canonical = TrackUri.canonical(uri);
+        return playlistTrackRepository.findUrisByUriHash(playlistId, TrackUri.hash(uri)).stream()
+                .anyMatch(existing -> TrackUri.canonical(existing).equals(canonical));
+    }
+
+    /**
+     * The tracks whose canonical URI is neither in the playlist nor earlier
+     * in the list, in their original order. The playlist is probed by hash,
+     * BATCH_SIZE hashes per query.
+     */
+    private List<TrackInfo> withoutDuplicates(Long playlistId, List<TrackInfo> tracks) {
+        Map<Long, String> canonicalByHash = new LinkedHashMap<>();
+        for (TrackInfo track : tracks) {
+            String canonical = TrackUri.canonical(track.getUri());
+            canonicalByHash.putIfAbsent(TrackUri.hash(canonical), canonical);
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<Long> hashes = new ArrayList<>(canonicalByHash.keySet());
+        for (int from = 0; from < hashes.size(); from += BATCH_SIZE) {
+            List<Long> chunk = hashes.subList(from, Math.min(from + BATCH_SIZE, hashes.size()));
+            for (String existing : playlistTrackRepository.findUrisByUriHashIn(playlistId, chunk)) {
+                seen.add(TrackUri.canonical(existing));
+            }
         }
 
-        StringBuilder sb = new StringBuilder("📋 **Your Playlists:**\n\n");
-        for (int i = 0; i < playlists.size(); i++) {
-            Playlist pl = playlists.get(i);
-            int trackCount = playlistTrackRepository.countByPlaylistId(pl.getId());
-            sb.append(String.format("`%d.` **%s** — %d track%s\n",
-                    i + 1, pl.getName(), trackCount, trackCount == 1 ? "" : "s"));
+        List<TrackInfo> kept = new ArrayList<>(tracks.size());
+        for (TrackInfo track : tracks) {
+            if (seen.add(TrackUri.canonical(track.getUri()))) {
+                kept.add(track);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Fill in uri_hash for tracks saved before the column existed, a chunk
+     * at a time. Each chunk commits on its own, so a large backfill holds no
+     * long transaction and keeps its progress if it is interrupted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void hashExistingUris() {
+        int hashed = 0;
+        int chunk;
+        do {
+            chunk = chunkTransaction.execute(status -> {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(UNHASHED_TRACKS_SQL);
+                jdbcTemplate.batchUpdate(HASH_URI_SQL, rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, TrackUri.hash((String) row.get("uri")));
+                    ps.setLong(2, ((Number) row.get("id")).longValue());
+                });
+                return rows.size();
+            });
+            hashed += chunk;
+        } while (chunk > 0);
+        if (hashed > 0) {
+            log.info("Hashed the URIs of {} existing playlist tracks", hashed);
+        }
+    }
+
+    private int nextPosition(Long playlistId) {
+        return playlistTrackRepository.findMaxPosition(playlistId).orElse(0) + POSITION_GAP;
+    }
+
+    private Playlist findOrCreatePlaylist(String userId, String playlistName) {
+        return playlistRepository.findByUserIdAndName(userId, playlistName)
+                .orElseGet(() -> {
+                    log.info("Playlist '{}' not found for user {}, creating new one.", playlistName, userId);
+                    Playlist newPlaylist = Playlist.builder()
+                            .userId(userId)
+                            .name(playlistName)
+                            .build();
+                    // Flushed so that JDBC inserts in the same transaction can reference it
+                    return playlistRepository.saveAndFlush(newPlaylist);
+                });
+    }
+
+    /**
+     * First /playlist-list page of a user. Served from the cache; a miss
+     * reads one page of rows by keyset.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PlaylistPage firstPage(String userId) {
+        return playlistCache.getListing(userId,
+                () -> readOnlyTransaction.execute(status -> loadPageAfter(userId, PlaylistPage.Key.START)));
+    }
 
-            // Show tracks in this playlist
-            List<PlaylistTrack> tracks = playlistTrackRepository
-                    .findByPlaylistIdOrderByPositionAsc(pl.getId());
-            for (PlaylistTrack track : tracks) {
-                long minutes = track.getDurationMs() / 60000;
-                long seconds = (track.getDurationMs() % 60000) / 1000;
-                sb.append(String.format("   ↳ `%d.` %s — %s (`%d:%02d`)\n",
-                        track.getPosition(), track.getTitle(), track.getAuthor(),
-                        minutes, seconds));
+    /**
+     * The /playlist-list page after the given key, e.g. the last key of the
+     * page on screen.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PlaylistPage pageAfter(String userId, PlaylistPage.Key key) {
+        return readOnlyTransaction.execute(status -> loadPageAfter(userId, key));
+    }
+
+    /**
+     * The /playlist-list page before the given key. Near the start this is
+     * the first page, so pages keep the same boundaries in both directions.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PlaylistPage pageBefore(String userId, PlaylistPage.Key key) {
+        return readOnlyTransaction.execute(status -> {
+            List<PlaylistTrackRow> rows = playlistRepository.findPageBefore(userId, key.playlistId(),
+                    key.position(), PageRequest.of(0, PAGE_SIZE + 1));
+            if (rows.size() <= PAGE_SIZE) {
+                return loadPageAfter(userId, PlaylistPage.Key.START);
             }
-            sb.append("\n");
+            List<PlaylistTrackRow> page = new ArrayList<>(rows.subList(0, PAGE_SIZE));
+            Collections.reverse(page);
+            return toPage(page, true, true);
+        });
+    }
+
+    private PlaylistPage loadPageAfter(String userId, PlaylistPage.Key key) {
+        List<PlaylistTrackRow> rows = playlistRepository.findPageAfter(userId, key.playlistId(), key.position(),
+                PageRequest.of(0, PAGE_SIZE + 1));
+        return toPage(rows.subList(0, Math.min(rows.size(), PAGE_SIZE)), !key.equals(PlaylistPage.Key.START),
+                rows.size() > PAGE_SIZE);
+    }
+
+    /**
+     * Group page rows by playlist, with each playlist's track count and the
+     * number of its first track on the page. Two small index queries on top
+     * of the page itself, however large the playlists are.
+     */
+    private PlaylistPage toPage(List<PlaylistTrackRow> rows, boolean hasPrevious, boolean hasNext) {
+        if (rows.isEmpty()) {
+            return new PlaylistPage(List.of(), PlaylistPage.Key.START, PlaylistPage.Key.START, false, false);
+        }
+
+        Map<Long, List<PlaylistTrackRow>> byPlaylist = new LinkedHashMap<>();
+        for (PlaylistTrackRow row : rows) {
+            byPlaylist.computeIfAbsent(row.getPlaylistId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Long> trackCounts = new HashMap<>();
+        for (PlaylistTrackRepository.TrackCount count : playlistTrackRepository.countByPlaylistIds(
+                byPlaylist.keySet())) {
+            trackCounts.put(count.getPlaylistId(), count.getTrackCount());
+        }
+
+        PlaylistTrackRow firstRow = rows.get(0);
+        int firstNumber = hasPrevious && firstRow.getPosition() != null
+                ? playlistTrackRepository.countByPlaylistIdAndPositionLessThan(firstRow.getPlaylistId(),
+                        firstRow.getPosition()) + 1
+                : 1;
+
+        List<PlaylistPage.Section> sections = new ArrayList<>(byPlaylist.size());
+        for (List<PlaylistTrackRow> playlistRows : byPlaylist.values()) {
+            PlaylistTrackRow head = playlistRows.get(0);
+            List<PlaylistPage.Track> tracks = playlistRows.stream()
+                    .filter(row -> row.getTitle() != null)
+                    .map(row -> new PlaylistPage.Track(row.getTitle(), row.getAuthor(),
+                            row.getDurationMs() != null ? row.getDurationMs() : 0))
+                    .toList();
+            sections.add(new PlaylistPage.Section(head.getPlaylistId(), head.getPlaylistName(),
+                    trackCounts.getOrDefault(head.getPlaylistId(), 0L).intValue(),
+                    sections.isEmpty() ? firstNumber : 1, tracks));
+        }
+        return new PlaylistPage(sections, pageKey(firstRow), pageKey(rows.get(rows.size() - 1)), hasPrevious,
+                hasNext);
+    }
+
+    private static PlaylistPage.Key pageKey(PlaylistTrackRow row) {
+        return new PlaylistPage.Key(row.getPlaylistId(), row.getPosition() != null ? row.getPosition() : -1);
+    }
+
+    /**
+     * Search the titles and authors of all tracks a user has saved. Answered
+     * from the in-memory search index; only the user's first search reads
+     * the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String searchTracks(String userId, String query) {
+        PlaylistSearchIndex.Result result = playlistSearchIndex.search(userId, query, SEARCH_RESULTS,
+                () -> readOnlyTransaction.execute(status -> playlistTrackRepository.findSearchHitsByUserId(userId)));
+
+        if (result.total() == 0) {
+            return "🔍 No saved tracks match **" + query + "**.";
         }
 
+        StringBuilder sb = new StringBuilder(String.format("🔍 **%d** saved track%s match **%s**:\n\n",
+                result.total(), result.total() == 1 ? "" : "s", query));
+        for (int i = 0; i < result.hits().size(); i++) {
+            PlaylistSearchHit hit = result.hits().get(i);
+            long minutes = hit.durationMs() / 60000;
+            long seconds = (hit.durationMs() % 60000) / 1000;
+            sb.append(String.format("`%d.` %s — %s (`%d:%02d`) · 📋 **%s**\n",
+                    i + 1, hit.title(), hit.author(), minutes, seconds, hit.playlistName()));
+        }
+        if (result.total() > result.hits().size()) {
+            sb.append(String.format("\n...and %d more. Add words to narrow the search.",
+                    result.total() - result.hits().size()));
+        }
         return sb.toString();
     }
 
+    private static PlaylistSearchHit searchHit(String playlistName, TrackInfo track) {
+        return new PlaylistSearchHit(playlistName, track.getTitle(), track.getAuthor(), track.getUri(),
+                track.getDurationMs());
+    }
+
     /**
-     * Remove a track from a user's playlist by track position.
+     * Remove a track from a user's playlist by track number. Only the removed
+     * row is written; the tracks after it keep their positions and move up
+     * one number.
      */
     public String removeTrack(String userId, String playlistName, int trackPosition) {
+        // The track is picked from the cached snapshot; if that turns out to
+        // be stale, the delete matches nothing and the fresh rows are used
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<PlaylistSnapshot> playlistOpt = getPlaylist(userId, playlistName);
+
+            if (playlistOpt.isEmpty()) {
+                return "❌ Playlist **" + playlistName + "** not found.";
+            }
+
+            PlaylistSnapshot playlist = playlistOpt.get();
+            if (trackPosition < 1 || trackPosition > playlist.tracks().size()) {
+                return "❌ Invalid track position. Use `/playlist-list` to see track positions.";
+            }
+
+            PlaylistSnapshot.Track trackToRemove = playlist.tracks().get(trackPosition - 1);
+            playlistCache.invalidate(userId, playlistName);
+            if (playlistTrackRepository.deleteByIdAndPlaylistId(trackToRemove.id(), playlist.id()) == 0) {
+                continue;
+            }
+            playlistTrackRepository.flush();
+            playlistSearchIndex.removed(userId, playlistName, trackToRemove.uri(), trackToRemove.title());
+
+            // Delete playlist if empty
+            if (!playlistTrackRepository.existsByPlaylistId(playlist.id())) {
+                playlistRepository.deleteById(playlist.id());
+                return "🗑️ Removed **" + trackToRemove.title() + "** and deleted empty playlist **" + playlistName
+                        + "**.";
+            }
+
+            return "🗑️ Removed **" + trackToRemove.title() + "** from playlist **" + playlistName + "**.";
+        }
+        return "❌ Playlist **" + playlistName + "** changed while removing the track. Please try again.";
+    }
+
+    /**
+     * Move a track to another number in a user's playlist. Only the moved
+     * row is written, unless its new neighbours have no gap left between
+     * them.
+     */
+    public String moveTrack(String userId, String playlistName, int from, int to) {
         Optional<Playlist> playlistOpt = playlistRepository.findByUserIdAndName(userId, playlistName);
 
         if (playlistOpt.isEmpty()) {
             return "❌ Playlist **" + playlistName + "** not found.";
         }
 
-        Playlist playlist = playlistOpt.get();
-        List<PlaylistTrack> tracks = playlistTrackRepository
-                .findByPlaylistIdOrderByPositionAsc(playlist.getId());
+        Long playlistId = playlistOpt.get().getId();
+        playlistCache.invalidate(userId, playlistName);
+        Optional<PlaylistTrack> movingOpt = trackAt(playlistId, from);
+        Optional<PlaylistTrack> targetOpt = trackAt(playlistId, to);
 
-        if (trackPosition < 1 || trackPosition > tracks.size()) {
+        if (movingOpt.isEmpty() || targetOpt.isEmpty()) {
             return "❌ Invalid track position. Use `/playlist-list` to see track positions.";
         }
 
-        PlaylistTrack trackToRemove = tracks.get(trackPosition - 1);
-        String trackTitle = trackToRemove.getTitle();
-        playlistTrackRepository.delete(trackToRemove);
+        PlaylistTrack moving = movingOpt.get();
+        if (from != to) {
+            // Moving down lands after the track now at `to`, moving up lands before it
+            PlaylistTrack target = targetOpt.get();
+            Integer lower;
+            Integer upper;
+            if (to > from) {
+                lower = target.getPosition();
+                upper = playlistTrackRepository
+                        .findFirstByPlaylistIdAndPositionGreaterThanOrderByPositionAsc(playlistId, lower)
+                        .map(PlaylistTrack::getPosition)
+                        .orElse(null);
+            } else {
+                upper = target.getPosition();
+                lower = playlistTrackRepository
+                        .findFirstByPlaylistIdAndPositionLessThanOrderByPositionDesc(playlistId, upper)
+                        .map(PlaylistTrack::getPosition)
+                        .orElse(null);
+            }
 
-        // Re-order remaining tracks
-        List<PlaylistTrack> remaining = playlistTrackRepository
-                .findByPlaylistIdOrderByPositionAsc(playlist.getId());
-        for (int i = 0; i < remaining.size(); i++) {
-            remaining.get(i).setPosition(i + 1);
+            if (lower == null) {
+                moving.setPosition(upper - POSITION_GAP);
+            } else if (upper == null) {
+                moving.setPosition(lower + POSITION_GAP);
+            } else if (upper - lower >= 2) {
+                moving.setPosition(lower + (upper - lower) / 2);
+            } else {
+                List<Long> ids = respace(playlistId);
+                int targetIndex = ids.indexOf(target.getId());
+                // After respacing the track at index i sits at (i + 1) * gap
+                moving.setPosition((to > from ? targetIndex + 1 : targetIndex) * POSITION_GAP + POSITION_GAP / 2);
+            }
+            playlistTrackRepository.save(moving);
         }
-        playlistTrackRepository.saveAll(remaining);
 
-        // Delete playlist if empty
-        if (remaining.isEmpty()) {
-            playlistRepository.delete(playlist);
-            return "🗑️ Removed **" + trackTitle + "** and deleted empty playlist **" + playlistName + "**.";
+        return "↕️ Moved **" + moving.getTitle() + "** to #" + to + " in playlist **" + playlistName + "**.";
+    }
+
+    /**
+     * The n-th track (1-based) of a playlist.
+     */
+    private Optional<PlaylistTrack> trackAt(Long playlistId, int number) {
+        if (number < 1) {
+            return Optional.empty();
         }
+        return playlistTrackRepository
+                .findByPlaylistIdOrderByPositionAsc(playlistId, PageRequest.of(number - 1, 1))
+                .stream()
+                .findFirst();
+    }
 
-        return "🗑️ Removed **" + trackTitle + "** from playlist **" + playlistName + "**.";
+    /**
+     * Give every track of a playlist evenly spaced positions again, in one
+     * batched UPDATE. Only needed once repeated moves into the same spot
+     * have used up a gap.
+     *
+     * @return track ids in playlist order
+     */
+    private List<Long> respace(Long playlistId) {
+        playlistTrackRepository.flush();
+        List<Long> ids = playlistTrackRepository.findIdsByPlaylistIdOrderByPosition(playlistId);
+        int[] position = { 0 };
+        jdbcTemplate.batchUpdate(RESPACE_TRACK_SQL, ids, BATCH_SIZE, (ps, id) -> {
+            position[0] += POSITION_GAP;
+            ps.setInt(1, position[0]);
+            ps.setLong(2, id);
+        });
+        log.info("Respaced {} track positions in playlist {}", ids.size(), playlistId);
+        return ids;
+    }
+
+    /**
+     * Get a user's playlist with its tracks in play order, from the cache.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<PlaylistSnapshot> getPlaylist(String userId, String playlistName) {
+        return playlistCache.getPlaylist(userId, playlistName,
+                () -> readOnlyTransaction.execute(status -> loadPlaylist(userId, playlistName)));
     }
 
     /**
      * Get all tracks for a specific playlist.
      */
-    @Transactional(readOnly = true)
-    public List<PlaylistTrack> getPlaylistTracks(String userId, String playlistName) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PlaylistSnapshot.Track> getPlaylistTracks(String userId, String playlistName) {
+        return getPlaylist(userId, playlistName)
+                .map(PlaylistSnapshot::tracks)
+                .orElse(List.of());
+    }
+
+    private Optional<PlaylistSnapshot> loadPlaylist(String userId, String playlistName) {
         return playlistRepository.findByUserIdAndName(userId, playlistName)
-                .map(playlist -> playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlist.getId()))
-                .orElse(java.util.Collections.emptyList());
+                .map(playlist -> new PlaylistSnapshot(playlist.getId(), userId, playlistName,
+                        playlistTrackRepository.findSnapshotTracks(playlist.getId())));
     }
 }
@@ -0,0 +1,194 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistTrackExport;
+import com.discord.bot.music.model.TrackInfo;
+import com.discord.bot.music.repository.PlaylistTrackRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Backup and migration of playlists as gzip-compressed JSON lines:
+ *
+ * <pre>
+ * {"format":"playlists","version":1}
+ * {"p":"road trip"}
+ * {"t":"title","a":"author","u":"uri","d":215000,"e":"encoded track"}
+ * ...
+ * {"p":"next playlist"}
+ * ...
+ * </pre>
+ *
+ * Both directions stream: an export is written row by row from a database
+ * cursor, and an import is read record by record and written in JDBC
+ * batches, so memory use does not depend on playlist size.
+ */
+@Service
+public class PlaylistTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistTransferService.class);
+
+    private static final String FORMAT = "playlists";
+    private static final int VERSION = 1;
+    /** Matches the playlists.name column. */
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final PlaylistTrackRepository playlistTrackRepository;
+    private final PlaylistService playlistService;
+    private final ObjectMapper objectMapper;
+    private final int maxImportTracks;
+
+    public PlaylistTransferService(PlaylistTrackRepository playlistTrackRepository,
+            PlaylistService playlistService, ObjectMapper objectMapper,
+            @Value("${playlist.transfer.max-import-tracks:20000}") int maxImportTracks) {
+        this.playlistTrackRepository = playlistTrackRepository;
+        this.playlistService = playlistService;
+        this.objectMapper = objectMapper;
+        this.maxImportTracks = maxImportTracks;
+    }
+
+    /**
+     * Result of an import.
+     */
+    public record ImportResult(int playlists, int tracks) {
+    }
+
+    /**
+     * Write a user's playlists, or just the named one, to the stream.
+     *
+     * @return number of tracks written
+     */
+    @Transactional(readOnly = true)
+    public int exportPlaylists(String userId, String playlistName, OutputStream out) throws IOException {
+        int tracks = 0;
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(gzip);
+                Stream<PlaylistTrackExport> rows = playlistTrackRepository.streamForExport(userId, playlistName)) {
+            json.setRootValueSeparator(null);
+            json.writeStartObject();
+            json.writeStringField("format", FORMAT);
+            json.writeNumberField("version", VERSION);
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            String currentPlaylist = null;
+            for (PlaylistTrackExport row : (Iterable<PlaylistTrackExport>) rows::iterator) {
+                if (!row.playlistName().equals(currentPlaylist)) {
+                    currentPlaylist = row.playlistName();
+                    json.writeStartObject();
+                    json.writeStringField("p", currentPlaylist);
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+                json.writeStartObject();
+                json.writeStringField("t", row.title());
+                if (row.author() != null) {
+                    json.writeStringField("a", row.author());
+                }
+                json.writeStringField("u", row.uri());
+                json.writeNumberField("d", row.durationMs());
+                if (row.encoded() != null) {
+                    json.writeStringField("e", row.encoded());
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                tracks++;
+            }
+        }
+        log.info("Exported {} tracks for user {}", tracks, userId);
+        return tracks;
+    }
+
+    /**
+     * Read an export and append its tracks to the user's playlists of the
+     * same names, creating them as needed. All or nothing: a malformed,
+     * oversized or cut-off file leaves every playlist unchanged, including
+     * the batches already written.
+     *
+     * @throws IllegalArgumentException if the file is not a valid export or
+     *                                  has more than the allowed tracks
+     * @throws IOException              if the stream fails, e.g. a truncated
+     *                                  file or an aborted download
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public ImportResult importPlaylists(String userId, InputStream in) throws IOException {
+        int playlists = 0;
+        int tracks = 0;
+        String currentPlaylist = null;
+        List<TrackInfo> batch = new ArrayList<>(PlaylistService.BATCH_SIZE);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(new GZIPInputStream(in, 64 * 1024));
+                MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(parser)) {
+            JsonNode header = records.hasNextValue() ? records.nextValue() : null;
+            if (header == null || !FORMAT.equals(header.path("format").asText())) {
+                throw new IllegalArgumentException("Not a playlist export");
+            }
+            if (header.path("version").asInt() > VERSION) {
+                throw new IllegalArgumentException("Unsupported export version " + header.path("version").asInt());
+            }
+
+            while (records.hasNextValue()) {
+                JsonNode record = records.nextValue();
+                if (record.has("p")) {
+                    flush(userId, currentPlaylist, batch);
+                    currentPlaylist = record.get("p").asText();
+                    if (currentPlaylist.isBlank() || currentPlaylist.length() > MAX_NAME_LENGTH) {
+                        throw new IllegalArgumentException("Invalid playlist name in export");
+                    }
+                    playlists++;
+                    continue;
+                }
+
+                if (currentPlaylist == null || !record.hasNonNull("u") || !record.hasNonNull("t")) {
+                    throw new IllegalArgumentException("Malformed track record in export");
+                }
+                if (++tracks > maxImportTracks) {
+                    throw new IllegalArgumentException("Export has more than " + maxImportTracks + " tracks");
+                }
+                batch.add(TrackInfo.builder()
+                        .title(record.get("t").asText())
+                        .author(record.hasNonNull("a") ? record.get("a").asText() : null)
+                        .uri(record.get("u").asText())
+                        .durationMs(record.path("d").asLong())
+                        .encoded(record.hasNonNull("e") ? record.get("e").asText() : null)
+                        .build());
+                if (batch.size() == PlaylistService.BATCH_SIZE) {
+                    flush(userId, currentPlaylist, batch);
+                }
+            }
+            flush(userId, currentPlaylist, batch);
+        } catch (ZipException | JsonProcessingException e) {
+            throw new IllegalArgumentException("Not a playlist export", e);
+        }
+
+        log.info("Imported {} tracks into {} playlists for user {}", tracks, playlists, userId);
+        return new ImportResult(playlists, tracks);
+    }
+
+    private void flush(String userId, String playlistName, List<TrackInfo> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        playlistService.appendTracks(userId, Objects.requireNonNull(playlistName), batch, false);
+        batch.clear();
+    }
+}
@@ -0,0 +1,460 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.config.properties.LavalinkProperties;
+import com.discord.bot.music.audio.BotInstance;
+import com.discord.bot.music.audio.GuildMusicManager;
+import com.discord.bot.music.audio.LavalinkNodeRouter;
+import com.discord.bot.music.audio.PlayerStateMirror;
+import com.discord.bot.music.entity.PlaybackSession;
+import com.discord.bot.music.model.GuildMusicQueue;
+import com.discord.bot.music.model.TrackInfo;
+import com.discord.bot.music.repository.PlaybackSessionRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.Link;
+import dev.arbjerg.lavalink.client.event.ReadyEvent;
+import dev.arbjerg.lavalink.client.player.Track;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps audio playing across a redeploy of this process.
+ *
+ * Every Lavalink session is marked resumable, so Lavalink keeps its players
+ * for lavalink.resume.timeout-seconds after our websocket goes away. Each
+ * channel's current track, position and queue are saved to the database
+ * periodically and on shutdown, together with the Lavalink session that
+ * holds its player. When a bot joins the pool again, its channels are
+ * restored: the surviving player is read over REST for the exact position
+ * and removed, the player is recreated on the bot's new session, and the
+ * queue is rebuilt in {@link GuildMusicManager}.
+ */
+@Service
+public class SessionResumeService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionResumeService.class);
+
+    /** Snapshots older than this are not restored, the moment has passed. */
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    /** One upcoming track in {@link PlaybackSession#getQueue()}. */
+    private record QueuedTrack(String encoded, String requesterId, String requesterName) {
+    }
+
+    private final PlaybackSessionRepository repository;
+    private final GuildMusicManager guildMusicManager;
+    private final LavalinkNodeRouter nodeRouter;
+    private final LavalinkProperties lavalinkProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int timeoutSeconds;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Bots whose saved channels have been restored. Only their snapshots are
+     * replaced, so a bot still logging in does not lose its saved state.
+     */
+    private final Set<Long> restoredBots = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Saved channels that could not be restored yet because their bot was
+     * busy in the guild, by snapshot id. Their rows are kept and the restore
+     * is retried with every snapshot until it succeeds or goes stale. Only
+     * touched on the executor.
+     */
+    private final Map<Long, PlaybackSession> pending = new HashMap<>();
+
+    public SessionResumeService(PlaybackSessionRepository repository, GuildMusicManager guildMusicManager,
+            LavalinkNodeRouter nodeRouter, LavalinkProperties lavalinkProperties, ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${lavalink.resume.enabled:true}") boolean enabled,
+            @Value("${lavalink.resume.timeout-seconds:60}") int timeoutSeconds,
+            @Value("${lavalink.resume.snapshot-interval-ms:15000}") long snapshotIntervalMs) {
+        this.repository = repository;
+        this.guildMusicManager = guildMusicManager;
+        this.nodeRouter = nodeRouter;
+        this.lavalinkProperties = lavalinkProperties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.timeoutSeconds = timeoutSeconds;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("session-resume-"));
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs,
+                    TimeUnit.MILLISECONDS);
+            // Restores block on REST and the database, so keep them off the login threads
+            guildMusicManager.getBotPool().addRegistrationListener(bot -> executor.execute(() -> restore(bot)));
+        }
+    }
+
+    /**
+     * Mark every session this client opens as resumable.
+     */
+    public void registerListeners(LavalinkClient client) {
+        if (!enabled) {
+            return;
+        }
+        client.on(ReadyEvent.class).subscribe(event -> executor.execute(
+                () -> enableResuming(event.getNode(), event.getSessionId())));
+    }
+
+    private void enableResuming(LavalinkNode node, String sessionId) {
+        try {
+            String body = "{\"resuming\":true,\"timeout\":" + timeoutSeconds + "}";
+            HttpResponse<String> response = send(node, "/v4/sessions/" + sessionId, "PATCH", body);
+            if (response.statusCode() / 100 == 2) {
+                log.info("Lavalink session {} on {} is resumable for {}s", sessionId, node.getName(), timeoutSeconds);
+            } else {
+                log.warn("Could not enable resuming on {}: HTTP {}", node.getName(), response.statusCode());
+            }
+        } catch (Exception e) {
+            log.warn("Could not enable resuming on {}: {}", node.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Last snapshot before the bots log out, e.g. on a rolling deploy.
+     * Runs on context close, before any bean is destroyed.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // On the executor, so it cannot interleave with a periodic snapshot
+            executor.submit(this::snapshotQuietly).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to save playback snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("Failed to save playback snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace the saved snapshots of restored bots with the state of their
+     * active channels, and drop stale ones.
+     */
+    private void snapshot() throws Exception {
+        retryPending();
+
+        List<Long> botIds = new ArrayList<>();
+        List<PlaybackSession> sessions = new ArrayList<>();
+        for (BotInstance bot : guildMusicManager.getBotPool().getAllInstances()) {
+            if (!restoredBots.contains(bot.getBotId())) {
+                continue;
+            }
+            botIds.add(bot.getBotId());
+            for (Map.Entry<Long, Long> connected : bot.getConnectedChannels().entrySet()) {
+                PlaybackSession session = capture(bot, connected.getKey(), connected.getValue());
+                if (session != null) {
+                    sessions.add(session);
+                }
+            }
+        }
+
+        // A channel another bot has taken over since no longer needs restoring
+        Set<List<Long>> served = new HashSet<>();
+        sessions.forEach(session -> served.add(channelKey(session)));
+        pending.values().removeIf(session -> served.contains(channelKey(session)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (pending.isEmpty()) {
+                repository.deleteByBotIdIn(botIds);
+            } else {
+                repository.deleteByBotIdInAndIdNotIn(botIds, pending.keySet());
+            }
+            repository.deleteBySavedAtBefore(LocalDateTime.now().minus(STALE_AFTER));
+            repository.flush();
+
+            // Upsert by channel: a row left by a bot that has not logged in
+            // again is overwritten rather than violating the unique key
+            Map<List<Long>, Long> existing = new HashMap<>();
+            Set<Long> guildIds = new HashSet<>();
+            sessions.forEach(session -> guildIds.add(session.getGuildId()));
+            if (!guildIds.isEmpty()) {
+                for (PlaybackSession row : repository.findByGuildIdIn(guildIds)) {
+                    existing.put(channelKey(row), row.getId());
+                }
+            }
+            sessions.forEach(session -> session.setId(existing.get(channelKey(session))));
+            repository.saveAll(sessions);
+        });
+        log.debug("Saved playback snapshot of {} channel(s)", sessions.size());
+    }
+
+    private static List<Long> channelKey(PlaybackSession session) {
+        return List.of(session.getGuildId(), session.getChannelId());
+    }
+
+    private PlaybackSession capture(BotInstance bot, long guildId, long channelId) throws Exception {
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        TrackInfo current = queue.getCurrentTrack();
+        if (current == null || current.getEncoded() == null) {
+            return null;
+        }
+
+        List<QueuedTrack> upcoming = new ArrayList<>();
+        for (TrackInfo track : queue.getQueueSnapshot()) {
+            upcoming.add(new QueuedTrack(track.getEncoded(), track.getRequesterId(), track.getRequesterName()));
+        }
+
+        PlayerStateMirror.Snapshot state = guildMusicManager.getPlayerState(guildId, channelId);
+        long position = state != null ? state.interpolatedPositionMs(queue.isPaused(), current.getDurationMs()) : 0;
+
+        Link link = bot.getLavalinkClient().getLinkIfCached(guildId);
+        LavalinkNode node = link != null ? link.getNode() : null;
+
+        return PlaybackSession.builder()
+                .botId(bot.getBotId())
+                .guildId(guildId)
+                .channelId(channelId)
+                .nodeName(node != null ? LavalinkNodeRouter.configuredName(node) : null)
+                .lavalinkSessionId(node != null ? node.getSessionId() : null)
+                .currentTrack(current.getEncoded())
+                .currentRequesterId(current.getRequesterId())
+                .currentRequesterName(current.getRequesterName())
+                .positionMs(position)
+                .paused(queue.isPaused())
+                .queue(objectMapper.writeValueAsString(upcoming))
+                .savedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Restore the channels a bot was serving before the restart.
+     */
+    private void restore(BotInstance bot) {
+        List<PlaybackSession> sessions;
+        try {
+            sessions = repository.findByBotId(bot.getBotId());
+        } catch (Exception e) {
+            log.error("Failed to read playback snapshots for bot {}: {}", bot.getBotName(), e.getMessage(), e);
+            restoredBots.add(bot.getBotId());
+            return;
+        }
+
+        for (PlaybackSession session : sessions) {
+            tryRestore(bot, session);
+        }
+        restoredBots.add(bot.getBotId());
+    }
+
+    /**
+     * Restore any saved channel whose bot has become free since, and drop
+     * the ones that went stale while waiting.
+     */
+    private void retryPending() {
+        for (PlaybackSession session : List.copyOf(pending.values())) {
+            pending.remove(session.getId());
+            BotInstance bot = guildMusicManager.getBotPool().getBotById(session.getBotId());
+            if (bot != null) {
+                tryRestore(bot, session);
+            }
+        }
+    }
+
+    /**
+     * Restore one saved channel. The snapshot is deleted once it is restored
+     * or can never be (stale, channel gone or served by another bot); if the
+     * bot is busy in the guild or the restore failed, it is kept for
+     * {@link #retryPending()}.
+     */
+    private void tryRestore(BotInstance bot, PlaybackSession session) {
+        boolean done = true;
+        try {
+            if (session.getSavedAt().isAfter(LocalDateTime.now().minus(STALE_AFTER))) {
+                done = restoreChannel(bot, session);
+            }
+        } catch (Exception e) {
+            done = false;
+            log.error("Failed to restore playback in guild {} channel {}: {}",
+                    session.getGuildId(), session.getChannelId(), e.getMessage(), e);
+        }
+        if (done) {
+            repository.delete(session);
+        } else {
+            pending.put(session.getId(), session);
+        }
+    }
+
+    /**
+     * Returns false if the bot is busy in the guild, so the channel cannot
+     * be restored yet.
+     */
+    private boolean restoreChannel(BotInstance bot, PlaybackSession session) throws Exception {
+        long guildId = session.getGuildId();
+        long channelId = session.getChannelId();
+        JDA jda = bot.getJdaForGuild(guildId);
+        AudioChannel channel = jda.getChannelById(AudioChannel.class, channelId);
+        if (channel == null) {
+            log.info("Not restoring guild {} channel {}: channel gone", guildId, channelId);
+            return true;
+        }
+        BotInstance serving = guildMusicManager.getBotPool().getBotInChannel(guildId, channelId);
+        if (serving != null) {
+            log.info("Not restoring guild {} channel {}: already served by bot {}",
+                    guildId, channelId, serving.getBotName());
+            return true;
+        }
+        if (!guildMusicManager.getBotPool().assign(bot, guildId, channelId)) {
+            // Checked again on the next retry if another bot took the channel meanwhile
+            log.info("Not restoring guild {} channel {} yet: bot busy in the guild", guildId, channelId);
+            return false;
+        }
+
+        // Prefer the live state of the player the old session left behind
+        String currentEncoded = session.getCurrentTrack();
+        boolean paused = session.isPaused();
+        long position = session.getPositionMs();
+        JsonNode oldPlayer = takeOverOldPlayer(session);
+        if (oldPlayer != null && oldPlayer.hasNonNull("track")) {
+            currentEncoded = oldPlayer.path("track").path("encoded").asText(currentEncoded);
+            paused = oldPlayer.path("paused").asBoolean(paused);
+            position = oldPlayer.path("state").path("position").asLong(position);
+        } else if (!paused) {
+            position += Duration.between(session.getSavedAt(), LocalDateTime.now()).toMillis();
+        }
+
+        List<QueuedTrack> upcoming = session.getQueue() != null
+                ? objectMapper.readValue(session.getQueue(), new TypeReference<List<QueuedTrack>>() {
+                })
+                : List.of();
+        List<String> encoded = new ArrayList<>();
+        encoded.add(currentEncoded);
+        upcoming.forEach(track -> encoded.add(track.encoded()));
+        List<Track> tracks = nodeRouter.decodeTracks(bot.getLavalinkClient(), encoded).block();
+        if (tracks == null || tracks.isEmpty()) {
+            guildMusicManager.cleanup(guildId, channelId);
+            return true;
+        }
+
+        GuildMusicQueue queue = guildMusicManager.getQueue(guildId, channelId);
+        Track currentTrack = tracks.get(0);
+        queue.setCurrentTrack(GuildMusicManager.toTrackInfo(currentTrack,
+                session.getCurrentRequesterId(), session.getCurrentRequesterName()));
+        queue.setPaused(paused);
+        for (int i = 1; i < tracks.size() && i <= upcoming.size(); i++) {
+            QueuedTrack queued = upcoming.get(i - 1);
+            queue.enqueue(GuildMusicManager.toTrackInfo(tracks.get(i), queued.requesterId(), queued.requesterName()));
+        }
+
+        jda.getDirectAudioController().connect(channel);
+        bot.getLavalinkClient().getOrCreateLink(guildId).createOrUpdatePlayer()
+                .setTrack(currentTrack)
+                .setPosition(Math.min(position, Math.max(currentTrack.getInfo().getLength() - 1, 0)))
+                .setPaused(paused)
+                .subscribe(
+                        player -> log.info("Restored playback in guild {} channel {} at {} ms with {} queued",
+                                guildId, channelId, player.getPosition(), queue.size()),
+                        error -> log.error("Failed to restore player in guild {} channel {}: {}",
+                                guildId, channelId, error.getMessage()));
+        return true;
+    }
+
+    /**
+     * Read the player that survived on the old, resumable session and delete
+     * it so it stops sending audio. Returns null if it is gone.
+     */
+    private JsonNode takeOverOldPlayer(PlaybackSession session) {
+        if (session.getNodeName() == null || session.getLavalinkSessionId() == null) {
+            return null;
+        }
+        LavalinkProperties.Node node = findNode(session.getNodeName());
+        if (node == null) {
+            return null;
+        }
+        String path = "/v4/sessions/" + session.getLavalinkSessionId() + "/players/" + session.getGuildId();
+        try {
+            HttpResponse<String> response = send(node, path, "GET", null);
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode player = objectMapper.readTree(response.body());
+            send(node, path, "DELETE", null);
+            return player;
+        } catch (Exception e) {
+            log.warn("Could not read old player in guild {}: {}", session.getGuildId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private LavalinkProperties.Node findNode(String name) {
+        return lavalinkProperties.getNodes().stream()
+                .filter(node -> node.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private HttpResponse<String> send(LavalinkNode node, String path, String method, String body) throws Exception {
+        LavalinkProperties.Node config = findNode(LavalinkNodeRouter.configuredName(node));
+        if (config == null) {
+            throw new IllegalStateException("Unknown Lavalink node " + node.getName());
+        }
+        return send(config, path, method, body);
+    }
+
+    private HttpResponse<String> send(LavalinkProperties.Node node, String path, String method, String body)
+            throws Exception {
+        // REST lives on the same host and port as the websocket
+        String base = node.getUri().replaceFirst("^ws", "http").replaceAll("/+$", "");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", node.getPassword())
+                .header("Content-Type", "application/json")
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
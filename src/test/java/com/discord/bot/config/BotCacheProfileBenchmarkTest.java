@@ -0,0 +1,243 @@
+package com.discord.bot.config;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.audio.AudioModuleConfig;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.SelfUserImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.MetaConfig;
+import net.dv8tion.jda.internal.utils.config.SessionConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap held per 1,000 guilds by each bot role's JDA cache profile, compared
+ * with the createDefault profile the bots used before. Synthetic
+ * GUILD_CREATE payloads are fed straight into JDA's entity builder, so no
+ * Discord connection is needed; every guild has roles, text and voice
+ * channels with permission overrides, emojis, stickers and members in
+ * voice. Opt-in: {@code ./gradlew test -Dbot.cache.benchmark=true}; the
+ * guild count is set with -Dbot.cache.benchmark.guilds.
+ */
+@EnabledIfSystemProperty(named = "bot.cache.benchmark", matches = "true")
+class BotCacheProfileBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(BotCacheProfileBenchmarkTest.class);
+
+	private static final int GUILDS = Integer.getInteger("bot.cache.benchmark.guilds", 1000);
+	private static final int ROLES = 15;
+	private static final int TEXT_CHANNELS = 20;
+	private static final int VOICE_CHANNELS = 10;
+	private static final int EMOJIS = 30;
+	private static final int STICKERS = 5;
+	private static final int MEMBERS_IN_VOICE = 25;
+	private static final long SELF_ID = 1L;
+
+	/** Intents the bots enabled on top of createDefault before the lean profiles. */
+	private static final EnumSet<GatewayIntent> DEFAULT_INTENTS = EnumSet.of(GatewayIntent.GUILD_VOICE_STATES,
+			GatewayIntent.GUILD_MESSAGES, GatewayIntent.GUILD_MESSAGE_REACTIONS);
+
+	@Test
+	void leanProfilesHoldLessHeapThanDefault() {
+		EnumSet<GatewayIntent> defaultIntents = EnumSet.copyOf(GatewayIntent.getIntents(GatewayIntent.DEFAULT));
+		defaultIntents.addAll(DEFAULT_INTENTS);
+		EnumSet<CacheFlag> defaultFlags = EnumSet.noneOf(CacheFlag.class);
+		for (CacheFlag flag : CacheFlag.values()) {
+			if (flag.getRequiredIntent() == null || defaultIntents.contains(flag.getRequiredIntent())) {
+				defaultFlags.add(flag);
+			}
+		}
+
+		long before = measure("createDefault", defaultFlags, MemberCachePolicy.DEFAULT);
+		long primary = measure("primary", EnumSet.of(CacheFlag.VOICE_STATE, CacheFlag.MEMBER_OVERRIDES),
+				MemberCachePolicy.VOICE);
+		long secondary = measure("secondary", EnumSet.of(CacheFlag.VOICE_STATE), MemberCachePolicy.NONE);
+
+		assertTrue(primary < before, "primary profile should hold less than createDefault");
+		assertTrue(secondary <= primary, "secondary profile should hold no more than primary");
+	}
+
+	private long measure(String profile, EnumSet<CacheFlag> cacheFlags, MemberCachePolicy memberCachePolicy) {
+		long baseline = usedHeap();
+		JDAImpl jda = new JDAImpl(new AuthorizationConfig("benchmark"), SessionConfig.getDefault(),
+				ThreadingConfig.getDefault(),
+				new MetaConfig(2048, new ConcurrentHashMap<>(), cacheFlags, ConfigFlag.getDefault()),
+				new RestConfig(), new AudioModuleConfig());
+		jda.setMemberCachePolicy(memberCachePolicy);
+		SelfUserImpl self = new SelfUserImpl(SELF_ID, jda);
+		self.setName("user" + SELF_ID).setGlobalName("User " + SELF_ID).setBot(true);
+		jda.setSelfUser(self);
+
+		for (int g = 0; g < GUILDS; g++) {
+			long guildId = 1_000_000L * (g + 1);
+			TLongObjectMap<DataObject> members = new TLongObjectHashMap<>();
+			for (DataObject member : guildMembers(guildId)) {
+				members.put(member.getObject("user").getLong("id"), member);
+			}
+			jda.getEntityBuilder().createGuild(guildId, guildPayload(guildId), members, 5000);
+		}
+
+		long used = usedHeap() - baseline;
+		long perThousand = used * 1000 / GUILDS;
+		log.info("{} profile: {} guild(s), {} KiB heap per 1,000 guilds, cache flags {}", profile,
+				jda.getGuildCache().size(), perThousand / 1024, cacheFlags);
+		return perThousand;
+	}
+
+	private static DataObject guildPayload(long guildId) {
+		DataArray roles = DataArray.empty();
+		roles.add(role(guildId, "@everyone", 0));
+		for (int r = 1; r <= ROLES; r++) {
+			roles.add(role(guildId + r, "role " + r, r));
+		}
+
+		DataArray channels = DataArray.empty();
+		for (int c = 0; c < TEXT_CHANNELS + VOICE_CHANNELS; c++) {
+			boolean voice = c >= TEXT_CHANNELS;
+			long memberOverride = guildId + 100 + c % MEMBERS_IN_VOICE;
+			channels.add(DataObject.empty()
+					.put("id", guildId + 1000 + c)
+					.put("type", voice ? 2 : 0)
+					.put("name", (voice ? "voice-" : "text-") + c)
+					.put("position", c)
+					.put("bitrate", 64000)
+					.put("user_limit", 0)
+					.put("permission_overwrites", DataArray.empty()
+							.add(overwrite(guildId, 0))
+							.add(overwrite(guildId + 1 + c % ROLES, 0))
+							.add(overwrite(memberOverride, 1))));
+		}
+
+		DataArray emojis = DataArray.empty();
+		for (int e = 0; e < EMOJIS; e++) {
+			emojis.add(DataObject.empty()
+					.put("id", guildId + 2000 + e)
+					.put("name", "emoji_" + e)
+					.put("roles", DataArray.empty())
+					.put("animated", false)
+					.put("available", true)
+					.put("managed", false));
+		}
+
+		DataArray stickers = DataArray.empty();
+		for (int s = 0; s < STICKERS; s++) {
+			stickers.add(DataObject.empty()
+					.put("id", guildId + 3000 + s)
+					.put("name", "sticker " + s)
+					.put("description", "a sticker")
+					.put("tags", "smile")
+					.put("type", 2)
+					.put("format_type", 1)
+					.put("available", true)
+					.put("guild_id", guildId));
+		}
+
+		DataArray voiceStates = DataArray.empty();
+		for (int m = 0; m < MEMBERS_IN_VOICE; m++) {
+			voiceStates.add(DataObject.empty()
+					.put("user_id", guildId + 100 + m)
+					.put("channel_id", guildId + 1000 + TEXT_CHANNELS + m % VOICE_CHANNELS)
+					.put("session_id", "session-" + m)
+					.put("deaf", false)
+					.put("mute", false)
+					.put("self_deaf", false)
+					.put("self_mute", false)
+					.put("self_video", false)
+					.put("suppress", false));
+		}
+
+		return DataObject.empty()
+				.put("id", guildId)
+				.put("name", "guild " + guildId)
+				.put("owner_id", guildId + 100)
+				.put("member_count", 5000)
+				.put("features", DataArray.empty())
+				.put("roles", roles)
+				.put("channels", channels)
+				.put("threads", DataArray.empty())
+				.put("emojis", emojis)
+				.put("stickers", stickers)
+				.put("guild_scheduled_events", DataArray.empty())
+				.put("voice_states", voiceStates)
+				.put("verification_level", 1)
+				.put("default_message_notifications", 0)
+				.put("explicit_content_filter", 0)
+				.put("mfa_level", 0)
+				.put("nsfw_level", 0)
+				.put("premium_tier", 0)
+				.put("afk_timeout", 300)
+				.put("preferred_locale", "en-US");
+	}
+
+	private static Iterable<DataObject> guildMembers(long guildId) {
+		DataObject[] members = new DataObject[MEMBERS_IN_VOICE + 1];
+		members[0] = member(SELF_ID, guildId);
+		for (int m = 0; m < MEMBERS_IN_VOICE; m++) {
+			members[m + 1] = member(guildId + 100 + m, guildId);
+		}
+		return Arrays.asList(members);
+	}
+
+	private static DataObject member(long userId, long guildId) {
+		return DataObject.empty()
+				.put("user", DataObject.empty()
+						.put("id", userId)
+						.put("username", "user" + userId)
+						.put("discriminator", "0000")
+						.put("global_name", "User " + userId)
+						.put("avatar", null))
+				.put("roles", DataArray.empty().add(guildId + 1 + userId % ROLES))
+				.put("joined_at", "2024-01-01T00:00:00.000000+00:00")
+				.put("deaf", false)
+				.put("mute", false)
+				.put("flags", 0);
+	}
+
+	private static DataObject role(long id, String name, int position) {
+		return DataObject.empty()
+				.put("id", id)
+				.put("name", name)
+				.put("color", 0)
+				.put("colors", DataObject.empty().put("primary_color", 0))
+				.put("hoist", false)
+				.put("position", position)
+				.put("permissions", "104324673")
+				.put("managed", false)
+				.put("mentionable", false);
+	}
+
+	private static DataObject overwrite(long id, int type) {
+		return DataObject.empty()
+				.put("id", id)
+				.put("type", type)
+				.put("allow", "1024")
+				.put("deny", "1048576");
+	}
+
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
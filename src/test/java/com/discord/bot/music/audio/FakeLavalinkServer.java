@@ -0,0 +1,972 @@
+package com.discord.bot.music.audio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * In-process stand-in for a Lavalink v4 node, for integration and load tests
+ * that run the real lavalink-client without network access or audio.
+ *
+ * Speaks the parts of the protocol the client uses: the websocket (ready,
+ * playerUpdate, stats and track events) and the REST endpoints for loading
+ * and decoding tracks, updating and deleting players and updating sessions.
+ * Tracks are synthetic: any identifier loads, and an encoded track is the
+ * base64 of its info JSON so it decodes back to the same track. Playback is
+ * simulated with timers; latencies and failures are scripted through
+ * {@link Script}.
+ *
+ * Dependencies are limited to the JDK and Jackson: HTTP/1.1 and websocket
+ * framing are handled on plain sockets, one virtual thread per connection.
+ */
+public class FakeLavalinkServer implements AutoCloseable {
+
+	private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final ServerSocket serverSocket;
+	private final String password;
+	private final Script script = new Script();
+
+	private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+	private final ScheduledExecutorService timers = Executors.newScheduledThreadPool(2);
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private final Map<Socket, Boolean> sockets = new ConcurrentHashMap<>();
+	private final AtomicLong requests = new AtomicLong();
+
+	private volatile boolean running = true;
+	private ScheduledFuture<?> playerUpdates;
+	private ScheduledFuture<?> stats;
+
+	private FakeLavalinkServer(String password) throws IOException {
+		this.password = password;
+		this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+		connections.execute(this::acceptLoop);
+		reschedulePeriodicMessages();
+	}
+
+	/**
+	 * Start a server on a free loopback port.
+	 */
+	public static FakeLavalinkServer start() throws IOException {
+		return start("youshallnotpass");
+	}
+
+	public static FakeLavalinkServer start(String password) throws IOException {
+		return new FakeLavalinkServer(password);
+	}
+
+	/**
+	 * Websocket URI to configure as the node's server URI.
+	 */
+	public String getUri() {
+		return "ws://127.0.0.1:" + serverSocket.getLocalPort();
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	/**
+	 * Latencies and failures, changeable while the server runs.
+	 */
+	public Script script() {
+		return script;
+	}
+
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	public int getPlayerCount() {
+		return sessions.values().stream().mapToInt(s -> s.players.size()).sum();
+	}
+
+	public int getPlayingPlayerCount() {
+		return (int) sessions.values().stream()
+				.flatMap(s -> s.players.values().stream())
+				.filter(Player::isPlaying)
+				.count();
+	}
+
+	/**
+	 * REST requests served so far.
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * Push a stats message to every session now instead of waiting for the
+	 * next interval.
+	 */
+	public void pushStats() {
+		sessions.values().forEach(this::sendStats);
+	}
+
+	/**
+	 * Drop every connection without a close frame, as a crashed node would.
+	 * The server keeps accepting new connections.
+	 */
+	public void dropConnections() {
+		for (Socket socket : sockets.keySet()) {
+			closeQuietly(socket);
+		}
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		closeQuietly(serverSocket);
+		dropConnections();
+		sessions.values().forEach(session -> session.players.values().forEach(Player::cancelEnd));
+		timers.shutdownNow();
+		connections.shutdownNow();
+	}
+
+	// ------------------------------------------------------------------
+	// Connection handling
+	// ------------------------------------------------------------------
+
+	private void acceptLoop() {
+		while (running) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				sockets.put(socket, Boolean.TRUE);
+				connections.execute(() -> handleConnection(socket));
+			} catch (IOException e) {
+				if (running) {
+					sleep(Duration.ofMillis(10));
+				}
+			}
+		}
+	}
+
+	private void handleConnection(Socket socket) {
+		try (socket) {
+			InputStream in = socket.getInputStream();
+			OutputStream out = socket.getOutputStream();
+			while (running) {
+				Request request = Request.read(in);
+				if (request == null) {
+					return;
+				}
+				if (!password.equals(request.headers.get("authorization"))) {
+					respond(out, 401, "{\"status\":401,\"error\":\"Unauthorized\"}");
+					continue;
+				}
+				if ("websocket".equalsIgnoreCase(request.headers.get("upgrade"))) {
+					handleWebSocket(request, in, out);
+					return;
+				}
+				requests.incrementAndGet();
+				handleRest(request, out);
+			}
+		} catch (IOException e) {
+			// Connection closed or dropped
+		} finally {
+			sockets.remove(socket);
+		}
+	}
+
+	// ------------------------------------------------------------------
+	// Websocket
+	// ------------------------------------------------------------------
+
+	private void handleWebSocket(Request request, InputStream in, OutputStream out) throws IOException {
+		String accept = websocketAccept(request.headers.get("sec-websocket-key"));
+		String resumeId = request.headers.get("session-id");
+		Session resumed = resumeId != null ? sessions.get(resumeId) : null;
+		boolean isResumed = resumed != null && resumed.resuming;
+
+		out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+				+ "Upgrade: websocket\r\n"
+				+ "Connection: Upgrade\r\n"
+				+ "Sec-WebSocket-Accept: " + accept + "\r\n"
+				+ "Session-Resumed: " + isResumed + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+
+		Session session = isResumed ? resumed : new Session(UUID.randomUUID().toString().replace("-", ""));
+		session.attach(out);
+		sessions.put(session.id, session);
+
+		ObjectNode ready = mapper.createObjectNode()
+				.put("op", "ready")
+				.put("resumed", isResumed)
+				.put("sessionId", session.id);
+		session.send(ready.toString());
+		sendStats(session);
+
+		try {
+			readFrames(in, session);
+		} finally {
+			session.detach(out);
+			if (session.resuming && running) {
+				// Keep the players for the resume timeout, like Lavalink does
+				timers.schedule(() -> {
+					if (!session.isAttached()) {
+						destroy(session);
+					}
+				}, session.resumeTimeoutSeconds, TimeUnit.SECONDS);
+			} else {
+				destroy(session);
+			}
+		}
+	}
+
+	private void destroy(Session session) {
+		sessions.remove(session.id);
+		session.players.values().forEach(Player::cancelEnd);
+	}
+
+	private void readFrames(InputStream in, Session session) throws IOException {
+		while (true) {
+			int b0 = in.read();
+			int b1 = in.read();
+			if (b0 < 0 || b1 < 0) {
+				return;
+			}
+			int opcode = b0 & 0x0F;
+			long length = b1 & 0x7F;
+			if (length == 126) {
+				length = (in.read() << 8) | in.read();
+			} else if (length == 127) {
+				length = 0;
+				for (int i = 0; i < 8; i++) {
+					length = (length << 8) | in.read();
+				}
+			}
+			byte[] mask = (b1 & 0x80) != 0 ? in.readNBytes(4) : null;
+			byte[] payload = in.readNBytes((int) length);
+			if (mask != null) {
+				for (int i = 0; i < payload.length; i++) {
+					payload[i] ^= mask[i % 4];
+				}
+			}
+
+			if (opcode == 0x8) {
+				session.sendFrame(0x8, payload);
+				return;
+			}
+			if (opcode == 0x9) {
+				session.sendFrame(0xA, payload);
+			}
+			// Text frames from the client are not part of the v4 protocol
+		}
+	}
+
+	private static String websocketAccept(String key) {
+		try {
+			byte[] sha1 = MessageDigest.getInstance("SHA-1")
+					.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(sha1);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void sendStats(Session session) {
+		int players = 0;
+		int playing = 0;
+		for (Session s : sessions.values()) {
+			players += s.players.size();
+			playing += (int) s.players.values().stream().filter(Player::isPlaying).count();
+		}
+		ObjectNode message = mapper.createObjectNode()
+				.put("op", "stats")
+				.put("players", players)
+				.put("playingPlayers", playing)
+				.put("uptime", 1000);
+		message.putObject("memory")
+				.put("free", 100_000_000L)
+				.put("used", 100_000_000L)
+				.put("allocated", 200_000_000L)
+				.put("reservable", 512_000_000L);
+		message.putObject("cpu")
+				.put("cores", 4)
+				.put("systemLoad", script.systemLoad)
+				.put("lavalinkLoad", script.systemLoad / 2);
+		message.putObject("frameStats")
+				.put("sent", playing * 3000)
+				.put("nulled", 0)
+				.put("deficit", script.frameDeficit);
+		session.send(message.toString());
+	}
+
+	private void sendPlayerUpdates() {
+		for (Session session : sessions.values()) {
+			for (Player player : session.players.values()) {
+				if (player.track != null) {
+					ObjectNode message = mapper.createObjectNode()
+							.put("op", "playerUpdate")
+							.put("guildId", Long.toString(player.guildId));
+					message.set("state", player.state());
+					session.send(message.toString());
+				}
+			}
+		}
+	}
+
+	private void sendEvent(Session session, Player player, String type, JsonNode track,
+			Map<String, Object> fields) {
+		ObjectNode event = mapper.createObjectNode()
+				.put("op", "event")
+				.put("type", type)
+				.put("guildId", Long.toString(player.guildId));
+		event.set("track", track);
+		fields.forEach((key, value) -> event.set(key, mapper.valueToTree(value)));
+		session.send(event.toString());
+	}
+
+	private synchronized void reschedulePeriodicMessages() {
+		if (playerUpdates != null) {
+			playerUpdates.cancel(false);
+			stats.cancel(false);
+		}
+		playerUpdates = timers.scheduleAtFixedRate(this::sendPlayerUpdates, script.playerUpdateIntervalMs,
+				script.playerUpdateIntervalMs, TimeUnit.MILLISECONDS);
+		stats = timers.scheduleAtFixedRate(this::pushStats, script.statsIntervalMs, script.statsIntervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	// ------------------------------------------------------------------
+	// REST
+	// ------------------------------------------------------------------
+
+	private void handleRest(Request request, OutputStream out) throws IOException {
+		String[] path = request.path.split("/");
+		// path[0] is empty: "/v4/..." splits to ["", "v4", ...]
+		if (request.path.equals("/version")) {
+			respondText(out, "4.0.0");
+		} else if (request.path.equals("/v4/info")) {
+			respond(out, 200, info().toString());
+		} else if (request.path.equals("/v4/loadtracks")) {
+			sleep(script.loadLatency);
+			respond(out, 200, loadTracks(request.query.getOrDefault("identifier", "")).toString());
+		} else if (request.path.equals("/v4/decodetrack")) {
+			JsonNode track = decode(request.query.getOrDefault("encodedTrack", ""));
+			respond(out, track != null ? 200 : 400, track != null ? track.toString() : error(400, "Bad track"));
+		} else if (request.path.equals("/v4/decodetracks") && request.method.equals("POST")) {
+			ArrayNode tracks = mapper.createArrayNode();
+			for (JsonNode encoded : mapper.readTree(request.body)) {
+				tracks.add(decode(encoded.asText()));
+			}
+			respond(out, 200, tracks.toString());
+		} else if (path.length >= 4 && path[1].equals("v4") && path[2].equals("sessions")) {
+			handleSession(request, out, path);
+		} else {
+			respond(out, 404, error(404, "Not Found"));
+		}
+	}
+
+	private void handleSession(Request request, OutputStream out, String[] path) throws IOException {
+		Session session = sessions.get(path[3]);
+		if (session == null) {
+			respond(out, 404, error(404, "Session not found"));
+			return;
+		}
+
+		if (path.length == 4 && request.method.equals("PATCH")) {
+			JsonNode body = mapper.readTree(request.body);
+			session.resuming = body.path("resuming").asBoolean(session.resuming);
+			session.resumeTimeoutSeconds = body.path("timeout").asLong(session.resumeTimeoutSeconds);
+			respond(out, 200, mapper.createObjectNode()
+					.put("resuming", session.resuming)
+					.put("timeout", session.resumeTimeoutSeconds)
+					.toString());
+			return;
+		}
+
+		if (path.length == 5 && path[4].equals("players")) {
+			ArrayNode players = mapper.createArrayNode();
+			session.players.values().forEach(player -> players.add(player.toJson()));
+			respond(out, 200, players.toString());
+			return;
+		}
+
+		if (path.length == 6 && path[4].equals("players")) {
+			long guildId = Long.parseLong(path[5]);
+			switch (request.method) {
+				case "GET" -> {
+					Player player = session.players.get(guildId);
+					respond(out, player != null ? 200 : 404,
+							player != null ? player.toJson().toString() : error(404, "Player not found"));
+				}
+				case "PATCH" -> {
+					sleep(script.playerLatency);
+					Player player = session.players.computeIfAbsent(guildId, id -> new Player(session, id));
+					player.update(mapper.readTree(request.body),
+							Boolean.parseBoolean(request.query.getOrDefault("noReplace", "false")));
+					respond(out, 200, player.toJson().toString());
+				}
+				case "DELETE" -> {
+					Player player = session.players.remove(guildId);
+					if (player != null) {
+						player.cancelEnd();
+					}
+					respondNoContent(out);
+				}
+				default -> respond(out, 405, error(405, "Method Not Allowed"));
+			}
+			return;
+		}
+
+		respond(out, 404, error(404, "Not Found"));
+	}
+
+	private JsonNode info() {
+		ObjectNode info = mapper.createObjectNode();
+		info.putObject("version")
+				.put("semver", "4.0.0")
+				.put("major", 4)
+				.put("minor", 0)
+				.put("patch", 0)
+				.putNull("preRelease")
+				.putNull("build");
+		info.put("buildTime", 0L);
+		info.putObject("git").put("branch", "fake").put("commit", "fake").put("commitTime", 0L);
+		info.put("jvm", System.getProperty("java.version"));
+		info.put("lavaplayer", "fake");
+		info.putArray("sourceManagers").add("youtube").add("soundcloud").add("http");
+		info.putArray("filters");
+		info.putArray("plugins");
+		return info;
+	}
+
+	private JsonNode loadTracks(String identifier) {
+		ObjectNode result = mapper.createObjectNode();
+		if (script.failLoad.test(identifier)) {
+			result.put("loadType", "error");
+			result.putObject("data")
+					.put("message", "Scripted load failure")
+					.put("severity", "common")
+					.put("cause", "FakeLavalinkServer");
+			return result;
+		}
+		if (script.emptyLoad.test(identifier)) {
+			result.put("loadType", "empty");
+			result.putObject("data");
+			return result;
+		}
+
+		int prefix = identifier.indexOf("search:");
+		if (prefix > 0) {
+			String source = identifier.startsWith("sc") ? "soundcloud" : "youtube";
+			String query = identifier.substring(prefix + "search:".length());
+			ArrayNode tracks = mapper.createArrayNode();
+			for (int i = 1; i <= script.searchResults; i++) {
+				tracks.add(track(query + " #" + i, source));
+			}
+			result.put("loadType", "search");
+			result.set("data", tracks);
+			return result;
+		}
+
+		result.put("loadType", "track");
+		result.set("data", track(identifier, identifier.contains("youtu") ? "youtube" : "http"));
+		return result;
+	}
+
+	private ObjectNode track(String title, String source) {
+		ObjectNode info = mapper.createObjectNode()
+				.put("identifier", Integer.toHexString(title.hashCode()))
+				.put("isSeekable", true)
+				.put("author", "Fake Artist")
+				.put("length", script.trackLengthMs)
+				.put("isStream", false)
+				.put("position", 0)
+				.put("title", title)
+				.put("uri", "https://example.invalid/" + Integer.toHexString(title.hashCode()))
+				.put("sourceName", source)
+				.putNull("artworkUrl")
+				.putNull("isrc");
+		return trackWithInfo(info);
+	}
+
+	private ObjectNode trackWithInfo(JsonNode info) {
+		ObjectNode track = mapper.createObjectNode();
+		track.put("encoded", Base64.getEncoder().encodeToString(info.toString().getBytes(StandardCharsets.UTF_8)));
+		track.set("info", info);
+		track.putObject("pluginInfo");
+		track.putObject("userData");
+		return track;
+	}
+
+	private JsonNode decode(String encoded) {
+		try {
+			return trackWithInfo(mapper.readTree(Base64.getDecoder().decode(encoded)));
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private String error(int status, String message) {
+		return mapper.createObjectNode()
+				.put("timestamp", System.currentTimeMillis())
+				.put("status", status)
+				.put("error", message)
+				.put("message", message)
+				.put("path", "")
+				.toString();
+	}
+
+	private static void respond(OutputStream out, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		out.write(("HTTP/1.1 " + status + " " + (status < 400 ? "OK" : "Error") + "\r\n"
+				+ "Content-Type: application/json\r\n"
+				+ "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(body);
+		out.flush();
+	}
+
+	private static void respondText(OutputStream out, String text) throws IOException {
+		byte[] body = text.getBytes(StandardCharsets.UTF_8);
+		out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length
+				+ "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(body);
+		out.flush();
+	}
+
+	private static void respondNoContent(OutputStream out) throws IOException {
+		out.write("HTTP/1.1 204 No Content\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+
+	private static void sleep(Duration duration) {
+		if (duration.isZero()) {
+			return;
+		}
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException ignored) {
+			// Already closed
+		}
+	}
+
+	// ------------------------------------------------------------------
+	// Model
+	// ------------------------------------------------------------------
+
+	/**
+	 * Scripted behaviour. Every setter applies to requests made after it.
+	 */
+	public class Script {
+
+		private volatile Duration loadLatency = Duration.ZERO;
+		private volatile Duration playerLatency = Duration.ZERO;
+		private volatile Predicate<String> failLoad = identifier -> false;
+		private volatile Predicate<String> emptyLoad = identifier -> false;
+		private volatile Predicate<String> failPlayback = title -> false;
+		private volatile long trackLengthMs = 180_000;
+		private volatile int searchResults = 5;
+		private volatile double playbackSpeed = 1.0;
+		private volatile long playerUpdateIntervalMs = 5_000;
+		private volatile long statsIntervalMs = 60_000;
+		private volatile double systemLoad = 0.1;
+		private volatile int frameDeficit = 0;
+
+		/** Delay before answering loadtracks. */
+		public Script loadLatency(Duration latency) {
+			this.loadLatency = latency;
+			return this;
+		}
+
+		/** Delay before answering player updates. */
+		public Script playerLatency(Duration latency) {
+			this.playerLatency = latency;
+			return this;
+		}
+
+		/** Identifiers answered with loadType "error". */
+		public Script failLoad(Predicate<String> identifiers) {
+			this.failLoad = identifiers;
+			return this;
+		}
+
+		/** Identifiers answered with loadType "empty". */
+		public Script emptyLoad(Predicate<String> identifiers) {
+			this.emptyLoad = identifiers;
+			return this;
+		}
+
+		/**
+		 * Track titles that fail when played: TrackExceptionEvent followed by
+		 * TrackEndEvent(loadFailed).
+		 */
+		public Script failPlayback(Predicate<String> titles) {
+			this.failPlayback = titles;
+			return this;
+		}
+
+		/** Length of every loaded track. */
+		public Script trackLength(Duration length) {
+			this.trackLengthMs = length.toMillis();
+			return this;
+		}
+
+		public Script searchResults(int count) {
+			this.searchResults = count;
+			return this;
+		}
+
+		/** Simulated playback speed; 10 plays a 3 minute track in 18 s. */
+		public Script playbackSpeed(double speed) {
+			this.playbackSpeed = speed;
+			return this;
+		}
+
+		public Script playerUpdateInterval(Duration interval) {
+			this.playerUpdateIntervalMs = interval.toMillis();
+			reschedulePeriodicMessages();
+			return this;
+		}
+
+		public Script statsInterval(Duration interval) {
+			this.statsIntervalMs = interval.toMillis();
+			reschedulePeriodicMessages();
+			return this;
+		}
+
+		/** Reported CPU load (0..1) in stats. */
+		public Script systemLoad(double load) {
+			this.systemLoad = load;
+			return this;
+		}
+
+		/** Reported missing frames per minute in stats. */
+		public Script frameDeficit(int deficit) {
+			this.frameDeficit = deficit;
+			return this;
+		}
+	}
+
+	/**
+	 * One websocket session and its players. A resumable session outlives its
+	 * connection for the resume timeout.
+	 */
+	private class Session {
+
+		private final String id;
+		private final Map<Long, Player> players = new ConcurrentHashMap<>();
+		private volatile OutputStream out;
+		private volatile boolean resuming;
+		private volatile long resumeTimeoutSeconds = 60;
+
+		Session(String id) {
+			this.id = id;
+		}
+
+		void attach(OutputStream out) {
+			this.out = out;
+		}
+
+		synchronized void detach(OutputStream out) {
+			if (this.out == out) {
+				this.out = null;
+			}
+		}
+
+		boolean isAttached() {
+			return out != null;
+		}
+
+		void send(String text) {
+			sendFrame(0x1, text.getBytes(StandardCharsets.UTF_8));
+		}
+
+		synchronized void sendFrame(int opcode, byte[] payload) {
+			OutputStream target = out;
+			if (target == null) {
+				return;
+			}
+			try {
+				ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 10);
+				frame.write(0x80 | opcode);
+				if (payload.length < 126) {
+					frame.write(payload.length);
+				} else if (payload.length <= 0xFFFF) {
+					frame.write(126);
+					frame.write(payload.length >>> 8);
+					frame.write(payload.length & 0xFF);
+				} else {
+					frame.write(127);
+					for (int i = 7; i >= 0; i--) {
+						frame.write((int) ((long) payload.length >>> (8 * i)) & 0xFF);
+					}
+				}
+				frame.write(payload);
+				target.write(frame.toByteArray());
+				target.flush();
+			} catch (IOException e) {
+				out = null;
+			}
+		}
+	}
+
+	/**
+	 * Simulated player: a position clock and a timer for the track's end.
+	 */
+	private class Player {
+
+		private final Session session;
+		private final long guildId;
+		private JsonNode track;
+		private JsonNode voice = mapper.createObjectNode().put("token", "").put("endpoint", "").put("sessionId", "");
+		private int volume = 100;
+		private boolean paused;
+		private long positionMs;
+		private long resumedAtMillis;
+		private ScheduledFuture<?> end;
+
+		Player(Session session, long guildId) {
+			this.session = session;
+			this.guildId = guildId;
+		}
+
+		synchronized boolean isPlaying() {
+			return track != null && !paused;
+		}
+
+		synchronized long position() {
+			if (track == null) {
+				return 0;
+			}
+			long position = positionMs;
+			if (!paused) {
+				position += (long) ((System.currentTimeMillis() - resumedAtMillis) * script.playbackSpeed);
+			}
+			return Math.min(position, track.path("info").path("length").asLong());
+		}
+
+		synchronized void update(JsonNode body, boolean noReplace) {
+			if (body.has("voice")) {
+				voice = body.get("voice");
+			}
+			if (body.has("volume")) {
+				volume = body.get("volume").asInt();
+			}
+
+			JsonNode encoded = null;
+			boolean trackSet = false;
+			if (body.has("track") && body.get("track").has("encoded")) {
+				encoded = body.get("track").get("encoded");
+				trackSet = true;
+			} else if (body.has("encodedTrack")) {
+				encoded = body.get("encodedTrack");
+				trackSet = true;
+			}
+
+			if (trackSet && !(noReplace && track != null)) {
+				if (encoded == null || encoded.isNull()) {
+					stop("stopped");
+				} else {
+					JsonNode next = decode(encoded.asText());
+					if (track != null) {
+						stop("replaced");
+					}
+					play(next, body.path("position").asLong(0));
+				}
+			} else if (body.has("position") && track != null) {
+				positionMs = body.get("position").asLong();
+				resumedAtMillis = System.currentTimeMillis();
+				scheduleEnd();
+			}
+
+			if (body.has("paused")) {
+				setPaused(body.get("paused").asBoolean());
+			}
+		}
+
+		private void play(JsonNode next, long startAt) {
+			track = next;
+			positionMs = startAt;
+			resumedAtMillis = System.currentTimeMillis();
+
+			String title = next.path("info").path("title").asText();
+			if (script.failPlayback.test(title)) {
+				JsonNode failed = track;
+				track = null;
+				Map<String, Object> exception = new HashMap<>();
+				exception.put("message", "Scripted playback failure");
+				exception.put("severity", "common");
+				exception.put("cause", "FakeLavalinkServer");
+				sendEvent(session, this, "TrackStartEvent", failed, Map.of());
+				sendEvent(session, this, "TrackExceptionEvent", failed, Map.of("exception", exception));
+				sendEvent(session, this, "TrackEndEvent", failed, Map.of("reason", "loadFailed"));
+				return;
+			}
+
+			sendEvent(session, this, "TrackStartEvent", track, Map.of());
+			scheduleEnd();
+		}
+
+		private void stop(String reason) {
+			if (track == null) {
+				return;
+			}
+			cancelEnd();
+			JsonNode ended = track;
+			track = null;
+			sendEvent(session, this, "TrackEndEvent", ended, Map.of("reason", reason));
+		}
+
+		private void setPaused(boolean paused) {
+			if (this.paused == paused) {
+				return;
+			}
+			positionMs = position();
+			resumedAtMillis = System.currentTimeMillis();
+			this.paused = paused;
+			scheduleEnd();
+		}
+
+		private void scheduleEnd() {
+			cancelEnd();
+			if (track == null || paused) {
+				return;
+			}
+			long remaining = track.path("info").path("length").asLong() - positionMs;
+			long delay = (long) (Math.max(remaining, 0) / script.playbackSpeed);
+			JsonNode playing = track;
+			end = timers.schedule(() -> {
+				synchronized (this) {
+					if (track == playing) {
+						track = null;
+						sendEvent(session, this, "TrackEndEvent", playing, Map.of("reason", "finished"));
+					}
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+
+		synchronized void cancelEnd() {
+			if (end != null) {
+				end.cancel(false);
+				end = null;
+			}
+		}
+
+		synchronized ObjectNode state() {
+			return mapper.createObjectNode()
+					.put("time", System.currentTimeMillis())
+					.put("position", position())
+					.put("connected", true)
+					.put("ping", 0);
+		}
+
+		synchronized ObjectNode toJson() {
+			ObjectNode json = mapper.createObjectNode().put("guildId", Long.toString(guildId));
+			if (track != null) {
+				ObjectNode current = track.deepCopy();
+				((ObjectNode) current.get("info")).put("position", position());
+				json.set("track", current);
+			} else {
+				json.putNull("track");
+			}
+			json.put("volume", volume);
+			json.put("paused", paused);
+			json.set("state", state());
+			json.set("voice", voice);
+			json.putObject("filters");
+			return json;
+		}
+	}
+
+	/**
+	 * One HTTP/1.1 request, read off a keep-alive connection.
+	 */
+	private record Request(String method, String path, Map<String, String> query,
+			Map<String, String> headers, String body) {
+
+		/**
+		 * @return the next request, or null when the client closed the
+		 *         connection
+		 */
+		static Request read(InputStream in) throws IOException {
+			String requestLine = readLine(in);
+			if (requestLine == null || requestLine.isEmpty()) {
+				return null;
+			}
+			String[] parts = requestLine.split(" ");
+			String target = parts[1];
+
+			Map<String, String> headers = new HashMap<>();
+			String line;
+			while ((line = readLine(in)) != null && !line.isEmpty()) {
+				int colon = line.indexOf(':');
+				if (colon > 0) {
+					headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+							line.substring(colon + 1).trim());
+				}
+			}
+
+			int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+			String body = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+
+			int q = target.indexOf('?');
+			Map<String, String> query = new HashMap<>();
+			if (q >= 0) {
+				for (String pair : target.substring(q + 1).split("&")) {
+					int eq = pair.indexOf('=');
+					if (eq > 0) {
+						query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+								URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+					}
+				}
+			}
+			return new Request(parts[0], q >= 0 ? target.substring(0, q) : target, query, headers, body);
+		}
+
+		private static String readLine(InputStream in) throws IOException {
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			int b;
+			while ((b = in.read()) >= 0) {
+				if (b == '\n') {
+					break;
+				}
+				if (b != '\r') {
+					line.write(b);
+				}
+			}
+			if (b < 0 && line.size() == 0) {
+				return null;
+			}
+			return line.toString(StandardCharsets.US_ASCII);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.discord.bot.music.audio;
+
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.NodeOptions;
+import dev.arbjerg.lavalink.client.event.TrackEndEvent;
+import dev.arbjerg.lavalink.client.event.TrackExceptionEvent;
+import dev.arbjerg.lavalink.client.event.TrackStartEvent;
+import dev.arbjerg.lavalink.client.player.LavalinkLoadResult;
+import dev.arbjerg.lavalink.client.player.LoadFailed;
+import dev.arbjerg.lavalink.client.player.SearchResult;
+import dev.arbjerg.lavalink.client.player.Track;
+import dev.arbjerg.lavalink.client.player.TrackLoaded;
+import dev.arbjerg.lavalink.protocol.v4.Message.EmittedEvent.TrackEndEvent.AudioTrackEndReason;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the real lavalink-client against {@link FakeLavalinkServer}.
+ */
+class FakeLavalinkServerTest {
+
+	private static final Logger log = LoggerFactory.getLogger(FakeLavalinkServerTest.class);
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private FakeLavalinkServer server;
+	private LavalinkClient client;
+	private LavalinkNode node;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FakeLavalinkServer.start();
+		client = new LavalinkClient(1L);
+		node = connect(client, server);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		server.close();
+	}
+
+	@Test
+	void searchReturnsScriptedResults() {
+		server.script().searchResults(3);
+
+		LavalinkLoadResult result = node.loadItem("ytsearch:never gonna").block(TIMEOUT);
+
+		SearchResult search = assertInstanceOf(SearchResult.class, result);
+		assertEquals(3, search.getTracks().size());
+		assertEquals("never gonna #1", search.getTracks().get(0).getInfo().getTitle());
+	}
+
+	@Test
+	void scriptedLoadFailureIsReported() {
+		server.script().failLoad(identifier -> identifier.contains("broken"));
+
+		LavalinkLoadResult result = node.loadItem("https://youtu.be/broken").block(TIMEOUT);
+
+		LoadFailed failed = assertInstanceOf(LoadFailed.class, result);
+		assertEquals("Scripted load failure", failed.getException().getMessage());
+	}
+
+	@Test
+	void decodedTracksMatchLoadedTracks() {
+		Track loaded = load("https://youtu.be/abc");
+
+		List<Track> decoded = node.decodeTracks(List.of(loaded.getEncoded())).block(TIMEOUT);
+
+		assertNotNull(decoded);
+		assertEquals(loaded.getInfo().getTitle(), decoded.get(0).getInfo().getTitle());
+		assertEquals(loaded.getInfo().getLength(), decoded.get(0).getInfo().getLength());
+	}
+
+	@Test
+	void playedTrackStartsAndFinishes() throws Exception {
+		server.script().trackLength(Duration.ofMillis(200));
+		BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+		client.on(TrackStartEvent.class).subscribe(events::add);
+		client.on(TrackEndEvent.class).subscribe(events::add);
+
+		node.createOrUpdatePlayer(42L).setTrack(load("https://youtu.be/short")).block(TIMEOUT);
+
+		TrackStartEvent start = assertInstanceOf(TrackStartEvent.class, events.poll(10, TimeUnit.SECONDS));
+		assertEquals(42L, start.getGuildId());
+		TrackEndEvent end = assertInstanceOf(TrackEndEvent.class, events.poll(10, TimeUnit.SECONDS));
+		assertEquals(AudioTrackEndReason.FINISHED, end.getEndReason());
+	}
+
+	@Test
+	void scriptedPlaybackFailureEmitsException() throws Exception {
+		server.script().failPlayback(title -> title.contains("cursed"));
+		BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+		client.on(TrackExceptionEvent.class).subscribe(events::add);
+		client.on(TrackEndEvent.class).subscribe(events::add);
+
+		node.createOrUpdatePlayer(42L).setTrack(load("https://youtu.be/cursed")).block(TIMEOUT);
+
+		assertInstanceOf(TrackExceptionEvent.class, events.poll(10, TimeUnit.SECONDS));
+		TrackEndEvent end = assertInstanceOf(TrackEndEvent.class, events.poll(10, TimeUnit.SECONDS));
+		assertEquals(AudioTrackEndReason.LOAD_FAILED, end.getEndReason());
+	}
+
+	@Test
+	void replacingTrackEndsPreviousOne() throws Exception {
+		BlockingQueue<TrackEndEvent> ends = new LinkedBlockingQueue<>();
+		client.on(TrackEndEvent.class).subscribe(ends::add);
+
+		node.createOrUpdatePlayer(7L).setTrack(load("https://youtu.be/first")).block(TIMEOUT);
+		node.createOrUpdatePlayer(7L).setTrack(load("https://youtu.be/second")).block(TIMEOUT);
+
+		TrackEndEvent end = ends.poll(10, TimeUnit.SECONDS);
+		assertNotNull(end);
+		assertEquals(AudioTrackEndReason.REPLACED, end.getEndReason());
+		assertEquals(1, server.getPlayingPlayerCount());
+	}
+
+	@Test
+	void balancerAvoidsStutteringNode() throws Exception {
+		try (FakeLavalinkServer stuttering = FakeLavalinkServer.start()) {
+			LavalinkNode bad = connect(client, stuttering);
+			stuttering.script().frameDeficit(1500);
+			stuttering.pushStats();
+			server.pushStats();
+			waitFor(() -> bad.getStats() != null && node.getStats() != null);
+
+			LavalinkNodeBalancer balancer = new LavalinkNodeBalancer(client, n -> true);
+
+			assertTrue(LavalinkNodeBalancer.penalty(bad) > LavalinkNodeBalancer.penalty(node));
+			assertEquals(node, balancer.selectNode(null, 1L));
+		}
+	}
+
+	/**
+	 * Pushes many concurrent sessions through the client. Opt-in, since it
+	 * takes a while: {@code ./gradlew test -Dlavalink.load=true}.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "lavalink.load", matches = "true")
+	void loadManySimulatedSessions() throws Exception {
+		int clients = Integer.getInteger("lavalink.load.clients", 20);
+		int guildsPerClient = Integer.getInteger("lavalink.load.guilds", 100);
+		server.script()
+				.loadLatency(Duration.ofMillis(5))
+				.playerLatency(Duration.ofMillis(2))
+				.trackLength(Duration.ofSeconds(1));
+
+		CountDownLatch started = new CountDownLatch(clients * guildsPerClient);
+		CountDownLatch finished = new CountDownLatch(clients * guildsPerClient);
+		List<LavalinkClient> loadClients = new ArrayList<>();
+		long startedAt = System.nanoTime();
+		try {
+			for (int c = 0; c < clients; c++) {
+				LavalinkClient loadClient = new LavalinkClient(1000L + c);
+				loadClients.add(loadClient);
+				loadClient.on(TrackStartEvent.class).subscribe(event -> started.countDown());
+				loadClient.on(TrackEndEvent.class).subscribe(event -> finished.countDown());
+				LavalinkNode loadNode = connect(loadClient, server);
+				for (int g = 0; g < guildsPerClient; g++) {
+					long guildId = g;
+					loadNode.loadItem("ytsearch:song " + g)
+							.map(result -> ((SearchResult) result).getTracks().get(0))
+							.flatMap(track -> loadNode.createOrUpdatePlayer(guildId).setTrack(track))
+							.subscribe();
+				}
+			}
+
+			assertTrue(started.await(60, TimeUnit.SECONDS), "Tracks not started: " + started.getCount());
+			assertTrue(finished.await(60, TimeUnit.SECONDS), "Tracks not finished: " + finished.getCount());
+			log.info("{} sessions played through in {} ms ({} REST requests)",
+					clients * guildsPerClient, (System.nanoTime() - startedAt) / 1_000_000,
+					server.getRequestCount());
+		} finally {
+			loadClients.forEach(LavalinkClient::close);
+		}
+	}
+
+	private Track load(String identifier) {
+		LavalinkLoadResult result = node.loadItem(identifier).block(TIMEOUT);
+		return assertInstanceOf(TrackLoaded.class, result).getTrack();
+	}
+
+	private static LavalinkNode connect(LavalinkClient client, FakeLavalinkServer server) throws Exception {
+		LavalinkNode connected = client.addNode(new NodeOptions.Builder()
+				.setName("fake-" + server.getUri().hashCode())
+				.setServerUri(server.getUri())
+				.setPassword(server.getPassword())
+				.build());
+		waitFor(connected::getAvailable);
+		return connected;
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for the fake Lavalink node");
+			Thread.sleep(10);
+		}
+	}
+}
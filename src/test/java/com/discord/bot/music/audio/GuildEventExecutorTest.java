@@ -0,0 +1,91 @@
+package com.discord.bot.music.audio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuildEventExecutorTest {
+
+	private static final int EVENTS = 50;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// One partition with room for two events, so both guilds share it and overflow at once
+	private final GuildEventExecutor executor = new GuildEventExecutor(meterRegistry, 1, 2);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void floodedGuildRunsEveryEventInOrderOnItsPartition() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(1, () -> await(release));
+
+		List<String> ran = Collections.synchronizedList(new ArrayList<>());
+		List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(2 * EVENTS);
+		for (int i = 0; i < EVENTS; i++) {
+			for (long guildId : new long[] { 1, 2 }) {
+				String event = guildId + ":" + i;
+				executor.execute(guildId, () -> {
+					ran.add(event);
+					threads.add(Thread.currentThread().getName());
+					done.countDown();
+				});
+			}
+		}
+		// Every execute returned while the partition was still blocked
+		assertTrue(executor.getBackloggedCount() > 0);
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		for (long guildId : new long[] { 1, 2 }) {
+			assertEquals(IntStream.range(0, EVENTS).mapToObj(i -> guildId + ":" + i).toList(),
+					ran.stream().filter(event -> event.startsWith(guildId + ":")).toList());
+		}
+		assertTrue(threads.stream().allMatch(name -> name.startsWith("guild-events-0-")), threads.toString());
+		assertEquals(0, executor.getBackloggedCount());
+		assertTrue(meterRegistry.get("lavalink.event.mailbox.overflow").counter().count() > 0);
+	}
+
+	@Test
+	void guildWithABacklogStaysBehindItWhenTheMailboxFreesUp() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(1, () -> await(release));
+		List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 4; i++) {
+			int event = i;
+			executor.execute(1, () -> ran.add(event));
+		}
+		release.countDown();
+
+		// Arrives once the mailbox may have room, but must still follow the backlog
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute(1, () -> {
+			ran.add(4);
+			done.countDown();
+		});
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of(0, 1, 2, 3, 4), ran);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.discord.bot.music.audio;
+
+import com.discord.bot.config.properties.LavalinkProperties;
+import com.discord.bot.music.model.GuildMusicQueue;
+import com.discord.bot.music.model.TrackInfo;
+import dev.arbjerg.lavalink.client.LavalinkClient;
+import dev.arbjerg.lavalink.client.LavalinkNode;
+import dev.arbjerg.lavalink.client.NodeOptions;
+import dev.arbjerg.lavalink.client.event.TrackStartEvent;
+import dev.arbjerg.lavalink.client.player.LavalinkLoadResult;
+import dev.arbjerg.lavalink.client.player.TrackLoaded;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link TrackScheduler} and {@link GuildMusicManager} on a bot from the
+ * pool, with the real lavalink-client talking to {@link FakeLavalinkServer}.
+ * Only the Discord side is mocked.
+ */
+class TrackSchedulerTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+	private static final long GUILD_ID = 42L;
+	private static final long CHANNEL_ID = 4200L;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private FakeLavalinkServer server;
+	private LavalinkClient client;
+	private GuildEventExecutor executor;
+	private TrackFailurePolicy failurePolicy;
+	private GuildMusicManager guildMusicManager;
+	private BotInstance bot;
+	private final List<TrackStartEvent> starts = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = FakeLavalinkServer.start();
+		server.script().trackLength(Duration.ofMillis(200));
+		client = new LavalinkClient(1L);
+		LavalinkNode node = client.addNode(new NodeOptions.Builder()
+				.setName("fake-1")
+				.setServerUri(server.getUri())
+				.setPassword(server.getPassword())
+				.build());
+		waitFor(node::getAvailable);
+
+		JDA jda = mock(JDA.class, RETURNS_DEEP_STUBS);
+		when(jda.getSelfUser().getIdLong()).thenReturn(1L);
+		when(jda.getSelfUser().getName()).thenReturn("fake-bot");
+		bot = new BotInstance(jda, client, true, 0);
+		bot.addGuild(GUILD_ID);
+		BotInstancePool pool = new BotInstancePool(meterRegistry, 10);
+		pool.register(bot);
+
+		PlayerStateMirror playerStateMirror = new PlayerStateMirror();
+		guildMusicManager = new GuildMusicManager(pool, playerStateMirror,
+				new LavalinkNodeRouter(new LavalinkProperties(), pool, meterRegistry));
+		executor = new GuildEventExecutor(meterRegistry, 2, 100);
+		// No retries, fall back to SoundCloud at once
+		failurePolicy = new TrackFailurePolicy(meterRegistry, 0, 0, "scsearch:", 5, 60_000);
+		new TrackScheduler(guildMusicManager, executor, failurePolicy, playerStateMirror, meterRegistry)
+				.registerListeners(client);
+		client.on(TrackStartEvent.class).subscribe(starts::add);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+		failurePolicy.shutdown();
+		client.close();
+		server.close();
+	}
+
+	@Test
+	void queuePlaysThroughInOrder() throws Exception {
+		play("https://youtu.be/one", "https://youtu.be/two", "https://youtu.be/three");
+
+		waitFor(() -> starts.size() == 3 && queue().getCurrentTrack() == null);
+
+		assertEquals(List.of("https://youtu.be/one", "https://youtu.be/two", "https://youtu.be/three"), titles());
+		assertTrue(queue().isEmpty());
+		assertSame(bot, guildMusicManager.getBotInChannel(GUILD_ID, CHANNEL_ID));
+	}
+
+	@Test
+	void failingTrackFallsBackThenMovesOn() throws Exception {
+		server.script().failPlayback(title -> title.contains("cursed"));
+
+		play("https://youtu.be/cursed", "https://youtu.be/after");
+
+		waitFor(() -> starts.size() == 3 && queue().getCurrentTrack() == null);
+
+		// The fallback match fails too, so the queue moves on to the next track
+		assertEquals(List.of("https://youtu.be/cursed", "Fake Artist https://youtu.be/cursed #1",
+				"https://youtu.be/after"), titles());
+		assertEquals(List.of("youtube", "soundcloud", "youtube"), starts.stream()
+				.map(start -> start.getTrack().getInfo().getSourceName())
+				.toList());
+	}
+
+	/**
+	 * Assign the pool's bot to the channel, queue the tracks and start the
+	 * first, as MusicService does.
+	 */
+	private void play(String... uris) {
+		assertSame(bot, guildMusicManager.findOrAssignBot(GUILD_ID, CHANNEL_ID));
+		GuildMusicQueue queue = queue();
+		for (String uri : uris) {
+			LavalinkLoadResult result = guildMusicManager.loadItem(bot, uri).block(TIMEOUT);
+			TrackInfo track = GuildMusicManager.toTrackInfo(assertInstanceOf(TrackLoaded.class, result).getTrack(),
+					"user", "User");
+			if (queue.getCurrentTrack() == null) {
+				queue.setCurrentTrack(track);
+			} else {
+				queue.enqueue(track);
+			}
+		}
+		guildMusicManager.getLink(GUILD_ID, CHANNEL_ID).createOrUpdatePlayer()
+				.setTrack(queue.getCurrentTrack().getLavalinkTrack())
+				.block(TIMEOUT);
+	}
+
+	private GuildMusicQueue queue() {
+		return guildMusicManager.getQueue(GUILD_ID, CHANNEL_ID);
+	}
+
+	private List<String> titles() {
+		return starts.stream()
+				.map(start -> start.getTrack().getInfo().getTitle())
+				.toList();
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for playback");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.discord.bot.music.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TrackUriTest {
+
+	@Test
+	void youtubeLinksToOneVideoShareACanonicalForm() {
+		String canonical = "https://youtube.com/watch?v=dQw4w9WgXcQ";
+
+		assertEquals(canonical, TrackUri.canonical("https://www.youtube.com/watch?v=dQw4w9WgXcQ"));
+		assertEquals(canonical, TrackUri.canonical("http://m.youtube.com/watch?feature=share&v=dQw4w9WgXcQ&t=42"));
+		assertEquals(canonical, TrackUri.canonical("https://youtu.be/dQw4w9WgXcQ?si=abc"));
+		assertEquals(canonical, TrackUri.canonical("https://music.youtube.com/watch?v=dQw4w9WgXcQ&list=RD1"));
+		assertEquals(canonical, TrackUri.canonical("https://youtube.com/shorts/dQw4w9WgXcQ"));
+		assertEquals(TrackUri.hash(canonical), TrackUri.hash(" https://youtu.be/dQw4w9WgXcQ "));
+	}
+
+	@Test
+	void otherLinksLoseOnlyTrackingParameters() {
+		assertEquals("https://soundcloud.com/artist/song",
+				TrackUri.canonical("https://www.SoundCloud.com/artist/song/?utm_source=clipboard&si=1"));
+		assertEquals("https://example.com/a.mp3?token=1", TrackUri.canonical("http://example.com/a.mp3?token=1#t"));
+		assertNotEquals(TrackUri.hash("https://example.com/a.mp3?token=1"),
+				TrackUri.hash("https://example.com/a.mp3?token=2"));
+	}
+
+	@Test
+	void identifiersThatAreNotLinksAreKept() {
+		assertEquals("ytsearch:never gonna", TrackUri.canonical(" ytsearch:never gonna"));
+		assertEquals("local track", TrackUri.canonical("local track"));
+	}
+}
@@ -0,0 +1,87 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistPage;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlaylistCacheTest {
+
+	private static final PlaylistPage EMPTY_PAGE = new PlaylistPage(List.of(), PlaylistPage.Key.START,
+			PlaylistPage.Key.START, false, false);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void repeatedReadsHitTheCache() {
+		PlaylistCache cache = new PlaylistCache(meterRegistry, 10, 60_000);
+
+		Optional<PlaylistSnapshot> first = cache.getPlaylist("u1", "chill", () -> load("chill"));
+		Optional<PlaylistSnapshot> second = cache.getPlaylist("u1", "chill", () -> load("chill"));
+
+		assertSame(first.get(), second.get());
+		assertEquals(1, loads.get());
+		assertEquals(0.5, meterRegistry.get("playlist.cache.hit_ratio").tag("region", "playlist").gauge().value());
+	}
+
+	@Test
+	void invalidationDropsPlaylistAndOwnersListingOnly() {
+		PlaylistCache cache = new PlaylistCache(meterRegistry, 10, 60_000);
+		cache.getPlaylist("u1", "chill", () -> load("chill"));
+		cache.getPlaylist("u1", "gym", () -> load("gym"));
+		cache.getListing("u1", () -> EMPTY_PAGE);
+
+		cache.invalidate("u1", "chill");
+		cache.getPlaylist("u1", "chill", () -> load("chill"));
+		cache.getPlaylist("u1", "gym", () -> load("gym"));
+		cache.getListing("u1", () -> {
+			loads.incrementAndGet();
+			return EMPTY_PAGE;
+		});
+
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotCached() {
+		PlaylistCache cache = new PlaylistCache(meterRegistry, 10, 60_000);
+
+		cache.getPlaylist("u1", "chill", () -> {
+			// A write commits while the old rows are being read
+			cache.invalidate("u1", "chill");
+			return load("chill");
+		});
+		cache.getPlaylist("u1", "chill", () -> load("chill"));
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		PlaylistCache cache = new PlaylistCache(meterRegistry, 2, 60_000);
+		cache.getPlaylist("u1", "a", () -> load("a"));
+		cache.getPlaylist("u1", "b", () -> load("b"));
+		cache.getPlaylist("u1", "a", () -> load("a"));
+		cache.getPlaylist("u1", "c", () -> load("c"));
+
+		cache.getPlaylist("u1", "a", () -> load("a"));
+		cache.getPlaylist("u1", "b", () -> load("b"));
+
+		assertEquals(4, loads.get());
+		assertEquals(2, cache.size());
+	}
+
+	private Optional<PlaylistSnapshot> load(String name) {
+		loads.incrementAndGet();
+		return Optional.of(new PlaylistSnapshot(1L, "u1", name,
+				List.of(new PlaylistSnapshot.Track(1L, "Song", "https://youtu.be/x", "Artist", 1000, 1024))));
+	}
+}
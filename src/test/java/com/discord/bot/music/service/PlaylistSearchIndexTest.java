@@ -0,0 +1,130 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistSearchHit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaylistSearchIndexTest {
+
+	private static final Logger log = LoggerFactory.getLogger(PlaylistSearchIndexTest.class);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void tokensIgnoreCaseAndAccents() {
+		assertEquals(List.of("son", "tung", "m", "tp", "chung", "ta", "cua", "hien", "tai", "dung"),
+				List.copyOf(PlaylistSearchIndex.tokens("Sơn Tùng M-TP — Chúng Ta Của Hiện Tại (Đừng)")));
+	}
+
+	@Test
+	void everyQueryTokenMustMatchAWordPrefix() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 1000);
+
+		PlaylistSearchIndex.Result result = index.search("u1", "son tu", 10, this::load);
+
+		assertEquals(List.of("Chúng Ta Của Hiện Tại", "Lạc Trôi"), titles(result));
+		assertEquals(0, index.search("u1", "son queen", 10, this::load).total());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void addsAndRemovesUpdateTheIndexInPlace() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 1000);
+		index.search("u1", "queen", 10, this::load);
+
+		index.added("u1", List.of(new PlaylistSearchHit("rock", "Under Pressure", "Queen", "u4", 1000)));
+		index.removed("u1", "rock", "u3", "Bohemian Rhapsody");
+
+		assertEquals(List.of("Under Pressure"), titles(index.search("u1", "queen", 10, this::load)));
+		assertEquals(3, index.indexedTracks());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void indexBuiltDuringAChangeOfItsUserIsNotKept() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 1000);
+
+		index.search("u1", "queen", 10, () -> {
+			index.added("u1", List.of(new PlaylistSearchHit("rock", "Under Pressure", "Queen", "u4", 1000)));
+			return load();
+		});
+		index.search("u1", "queen", 10, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void changesOfOtherUsersDoNotDiscardAFreshIndex() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 1000);
+
+		index.search("u1", "queen", 10, () -> {
+			index.added("u2", List.of(new PlaylistSearchHit("rock", "Under Pressure", "Queen", "u4", 1000)));
+			return load();
+		});
+		index.search("u1", "queen", 10, this::load);
+
+		assertEquals(1, loads.get());
+		assertEquals(3, index.indexedTracks());
+	}
+
+	@Test
+	void leastRecentlySearchedUsersAreEvicted() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 7);
+		index.search("u1", "queen", 10, this::load);
+		index.search("u2", "queen", 10, this::load);
+		index.search("u1", "queen", 10, this::load);
+		index.search("u3", "queen", 10, this::load);
+
+		assertEquals(6, index.indexedTracks());
+		index.search("u1", "queen", 10, this::load);
+		assertEquals(3, loads.get());
+		index.search("u2", "queen", 10, this::load);
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "playlist.benchmark", matches = "true")
+	void largeIndexAnswersInUnderAMillisecond() {
+		PlaylistSearchIndex index = new PlaylistSearchIndex(meterRegistry, 100_000);
+		List<PlaylistSearchHit> tracks = IntStream.range(0, 20_000)
+				.mapToObj(i -> new PlaylistSearchHit("playlist " + i / 200, "Song " + i + " word" + i % 97,
+						"Artist " + i % 500, "u" + i, 1000))
+				.toList();
+		for (int i = 0; i < 1000; i++) {
+			index.search("u1", "word" + i % 97, 10, () -> tracks);
+		}
+
+		int rounds = 1000;
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			index.search("u1", "artist " + i % 500 + " word" + i % 97, 10, () -> tracks);
+		}
+		long avgMicros = (System.nanoTime() - startedAt) / rounds / 1_000;
+		log.info("search of {} tracks: {} us/call", tracks.size(), avgMicros);
+
+		assertTrue(avgMicros < 1_000, avgMicros + " us");
+	}
+
+	private List<PlaylistSearchHit> load() {
+		loads.incrementAndGet();
+		return List.of(
+				new PlaylistSearchHit("vpop", "Lạc Trôi", "Sơn Tùng M-TP", "u1", 1000),
+				new PlaylistSearchHit("vpop", "Chúng Ta Của Hiện Tại", "Sơn Tùng M-TP", "u2", 1000),
+				new PlaylistSearchHit("rock", "Bohemian Rhapsody", "Queen", "u3", 1000));
+	}
+
+	private static List<String> titles(PlaylistSearchIndex.Result result) {
+		return result.hits().stream().map(PlaylistSearchHit::title).toList();
+	}
+}
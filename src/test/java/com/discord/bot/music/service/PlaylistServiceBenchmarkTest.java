@@ -0,0 +1,320 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.entity.Playlist;
+import com.discord.bot.music.entity.PlaylistTrack;
+import com.discord.bot.music.model.PlaylistPage;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import com.discord.bot.music.model.TrackInfo;
+import com.discord.bot.music.repository.PlaylistRepository;
+import com.discord.bot.music.repository.PlaylistTrackRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing runs for users with many large playlists: the old per-playlist
+ * queries of the full playlist listing against keyset-paged /playlist-list
+ * pages, search, per-track inserts against the batched import with and
+ * without skipping duplicates, moves in a large playlist and an export
+ * round trip. Results are logged; behaviour is covered by
+ * {@link PlaylistServiceTest}, which always runs. Opt-in:
+ * {@code ./gradlew test -Dplaylist.benchmark=true}. Runs on in-memory H2 by
+ * default; point it at MySQL with -Dplaylist.benchmark.url, .username,
+ * .password and .driver.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ PlaylistService.class, PlaylistCache.class, PlaylistSearchIndex.class, PlaylistTransferService.class,
+		SimpleMeterRegistry.class, JacksonAutoConfiguration.class })
+@TestPropertySource(properties = {
+		"spring.datasource.url=${playlist.benchmark.url:jdbc:h2:mem:playlist-benchmark;DB_CLOSE_DELAY=-1}",
+		"spring.datasource.username=${playlist.benchmark.username:sa}",
+		"spring.datasource.password=${playlist.benchmark.password:}",
+		"spring.datasource.driver-class-name=${playlist.benchmark.driver:org.h2.Driver}",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// Measure the database paths, not the cache
+		"playlist.cache.max-entries=0"
+})
+@EnabledIfSystemProperty(named = "playlist.benchmark", matches = "true")
+class PlaylistServiceBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(PlaylistServiceBenchmarkTest.class);
+
+	private static final int USERS = Integer.getInteger("playlist.benchmark.users", 3);
+	private static final int PLAYLISTS = Integer.getInteger("playlist.benchmark.playlists", 50);
+	private static final int TRACKS = Integer.getInteger("playlist.benchmark.tracks", 200);
+	private static final int ROUNDS = Integer.getInteger("playlist.benchmark.rounds", 20);
+
+	@Autowired
+	private PlaylistService playlistService;
+
+	@Autowired
+	private PlaylistTransferService playlistTransferService;
+
+	@Autowired
+	private PlaylistRepository playlistRepository;
+
+	@Autowired
+	private PlaylistTrackRepository playlistTrackRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		for (int u = 0; u < USERS; u++) {
+			for (int p = 0; p < PLAYLISTS; p++) {
+				Playlist playlist = Playlist.builder().userId("user-" + u).name("playlist " + p).build();
+				entityManager.persist(playlist);
+				for (int t = 1; t <= TRACKS; t++) {
+					entityManager.persist(PlaylistTrack.builder()
+							.playlist(playlist)
+							.title("Track " + t)
+							.author("Artist " + t)
+							.uri("https://youtu.be/" + u + "-" + p + "-" + t)
+							.durationMs(180_000 + t)
+							.position(t)
+							.build());
+				}
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void firstPageReplacesFullListing() {
+		run("N+1 queries", this::listWithPerPlaylistQueries);
+		PlaylistPage page = run("first page", () -> playlistService.firstPage("user-0"));
+
+		assertEquals(PlaylistService.PAGE_SIZE, rowCount(page));
+		assertTrue(page.hasNext());
+		assertFalse(page.hasPrevious());
+	}
+
+	@Test
+	void searchReadsTheDatabaseOnce() {
+		statistics.clear();
+		String first = playlistService.searchTracks("user-0", "artist 200");
+		long firstStatements = statistics.getPrepareStatementCount();
+
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			playlistService.searchTracks("user-0", "track " + i);
+		}
+		log.info("search of {} tracks: {} us/call after the first", PLAYLISTS * TRACKS,
+				(System.nanoTime() - startedAt) / ROUNDS / 1_000);
+
+		assertTrue(first.startsWith("🔍 **" + PLAYLISTS + "** saved tracks"), first);
+		assertEquals(1, firstStatements);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void bulkImportMatchesPerTrackInserts() {
+		List<TrackInfo> tracks = IntStream.rangeClosed(1, TRACKS)
+				.mapToObj(t -> TrackInfo.builder()
+						.title("Imported " + t)
+						.author("Artist " + t)
+						.uri("https://youtu.be/import-" + t)
+						.durationMs(200_000 + t)
+						.build())
+				.toList();
+
+		long startedAt = System.nanoTime();
+		tracks.forEach(track -> playlistService.addTrack("importer", "one by one", track));
+		entityManager.flush();
+		long perTrackMicros = (System.nanoTime() - startedAt) / 1_000;
+
+		startedAt = System.nanoTime();
+		playlistService.addTracks("importer", "bulk", tracks);
+		long bulkMicros = (System.nanoTime() - startedAt) / 1_000;
+		log.info("import of {} tracks: {} us one by one, {} us in batches", TRACKS, perTrackMicros,
+				bulkMicros);
+
+		entityManager.clear();
+		List<PlaylistSnapshot.Track> oneByOne = playlistService.getPlaylistTracks("importer", "one by one");
+		List<PlaylistSnapshot.Track> bulk = playlistService.getPlaylistTracks("importer", "bulk");
+		assertEquals(TRACKS, bulk.size());
+		for (int i = 0; i < TRACKS; i++) {
+			assertEquals(oneByOne.get(i).position(), bulk.get(i).position());
+			assertEquals(oneByOne.get(i).uri(), bulk.get(i).uri());
+		}
+	}
+
+	@Test
+	void duplicatesAreFoundWithIndexProbes() {
+		List<TrackInfo> tracks = IntStream.rangeClosed(1, TRACKS)
+				.mapToObj(t -> TrackInfo.builder()
+						.title("Video " + t)
+						.uri("https://www.youtube.com/watch?v=video" + t)
+						.durationMs(1000)
+						.build())
+				.toList();
+		playlistService.addTracks("dedup", "mix", tracks, true);
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		long startedAt = System.nanoTime();
+		String again = playlistService.addTracks("dedup", "mix", tracks, true);
+		long bulkMicros = (System.nanoTime() - startedAt) / 1_000;
+		long bulkQueries = statistics.getPrepareStatementCount();
+		statistics.clear();
+		startedAt = System.nanoTime();
+		String single = playlistService.addTrack("dedup", "mix",
+				TrackInfo.builder().title("Video 7").uri("https://youtu.be/video7?si=shared").build(), true);
+		log.info("duplicate check of {} tracks: {} us in {} queries, single track: {} us", TRACKS,
+				bulkMicros, bulkQueries, (System.nanoTime() - startedAt) / 1_000);
+
+		assertTrue(again.contains("Added **0**"), again);
+		assertTrue(single.contains("already in playlist"), single);
+		// Playlist lookup plus one probe
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(TRACKS, playlistService.getPlaylistTracks("dedup", "mix").size());
+
+		playlistService.addTracks("dedup", "mix", List.of(tracks.get(0), tracks.get(0)), false);
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals(TRACKS + 2, playlistService.getPlaylistTracks("dedup", "mix").size());
+	}
+
+	@Test
+	void removeAndMoveWriteOneRowInLargePlaylist() {
+		int size = Integer.getInteger("playlist.benchmark.large", 5000);
+		playlistService.addTracks("mover", "large", IntStream.rangeClosed(1, size)
+				.mapToObj(t -> TrackInfo.builder().title("T" + t).uri("u" + t).durationMs(1000).build())
+				.toList());
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		long startedAt = System.nanoTime();
+		playlistService.removeTrack("mover", "large", size / 2);
+		playlistService.moveTrack("mover", "large", 1, size - 1);
+		playlistService.moveTrack("mover", "large", size - 2, 2);
+		entityManager.flush();
+		log.info("remove + 2 moves in {} tracks: {} us, {} rows updated, {} deleted", size,
+				(System.nanoTime() - startedAt) / 1_000, statistics.getEntityUpdateCount(),
+				statistics.getEntityDeleteCount());
+
+		assertEquals(1, statistics.getEntityDeleteCount());
+		assertEquals(2, statistics.getEntityUpdateCount());
+
+		entityManager.clear();
+		List<String> titles = titles("mover", "large");
+		assertEquals(size - 1, titles.size());
+		assertEquals("T2", titles.get(0));
+		assertEquals("T" + size, titles.get(1));
+		assertEquals("T1", titles.get(size - 2));
+		assertFalse(titles.contains("T" + (size / 2)));
+	}
+
+	@Test
+	void exportImportRoundTrip() throws IOException {
+		int size = Integer.getInteger("playlist.benchmark.export", 10_000);
+		playlistService.addTracks("exporter", "big", IntStream.rangeClosed(1, size)
+				.mapToObj(t -> TrackInfo.builder().title("T" + t).author("A" + t).uri("u" + t)
+						.durationMs(1000 + t).encoded("enc" + t).build())
+				.toList());
+		entityManager.flush();
+		entityManager.clear();
+
+		long startedAt = System.nanoTime();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = playlistTransferService.exportPlaylists("exporter", null, out);
+		long exportMicros = (System.nanoTime() - startedAt) / 1_000;
+
+		startedAt = System.nanoTime();
+		PlaylistTransferService.ImportResult result = playlistTransferService.importPlaylists("importer",
+				new ByteArrayInputStream(out.toByteArray()));
+		long importMicros = (System.nanoTime() - startedAt) / 1_000;
+		log.info("export + import of {} tracks: {} bytes, {} us export, {} us import", size,
+				out.size(), exportMicros, importMicros);
+
+		assertEquals(size, exported);
+		assertEquals(new PlaylistTransferService.ImportResult(1, size), result);
+		entityManager.clear();
+		assertEquals(titles("exporter", "big"), titles("importer", "big"));
+	}
+
+	private List<String> titles(String userId, String playlistName) {
+		return playlistService.getPlaylistTracks(userId, playlistName).stream()
+				.map(PlaylistSnapshot.Track::title)
+				.toList();
+	}
+
+	private <T> T run(String label, Supplier<T> listing) {
+		T result = listing.get();
+		entityManager.clear();
+		statistics.clear();
+
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			listing.get();
+			entityManager.clear();
+		}
+		long avgMicros = (System.nanoTime() - startedAt) / ROUNDS / 1_000;
+		log.info("{} {} playlists x {} tracks: {} us/call, {} statements/call, {} entities/call",
+				label, PLAYLISTS, TRACKS, avgMicros, statistics.getPrepareStatementCount() / ROUNDS,
+				statistics.getEntityLoadCount() / ROUNDS);
+		return result;
+	}
+
+	private static int rowCount(PlaylistPage page) {
+		return page.sections().stream().mapToInt(section -> Math.max(1, section.tracks().size())).sum();
+	}
+
+	/**
+	 * The listing as it was built before the projection query and paging.
+	 */
+	private String listWithPerPlaylistQueries() {
+		List<Playlist> playlists = playlistRepository.findByUserId("user-0");
+		StringBuilder sb = new StringBuilder("📋 **Your Playlists:**\n\n");
+		for (int i = 0; i < playlists.size(); i++) {
+			Playlist pl = playlists.get(i);
+			int trackCount = playlistTrackRepository.countByPlaylistId(pl.getId());
+			sb.append(String.format("`%d.` **%s** — %d track%s\n",
+					i + 1, pl.getName(), trackCount, trackCount == 1 ? "" : "s"));
+			for (PlaylistTrack track : playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(pl.getId())) {
+				long minutes = track.getDurationMs() / 60000;
+				long seconds = (track.getDurationMs() % 60000) / 1000;
+				sb.append(String.format("   ↳ `%d.` %s — %s (`%d:%02d`)\n",
+						track.getPosition(), track.getTitle(), track.getAuthor(), minutes, seconds));
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,391 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.entity.Playlist;
+import com.discord.bot.music.entity.PlaylistTrack;
+import com.discord.bot.music.model.PlaylistPage;
+import com.discord.bot.music.model.PlaylistSnapshot;
+import com.discord.bot.music.model.TrackInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ PlaylistService.class, PlaylistCache.class, PlaylistSearchIndex.class, SimpleMeterRegistry.class })
+@TestPropertySource(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// Exercise the database paths, not the cache
+		"playlist.cache.max-entries=0"
+})
+class PlaylistServiceTest {
+
+	private static final int PLAYLISTS = 3;
+	private static final int TRACKS = 20;
+
+	@Autowired
+	private PlaylistService playlistService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		for (int p = 0; p < PLAYLISTS; p++) {
+			Playlist playlist = Playlist.builder().userId("user").name("playlist " + p).build();
+			entityManager.persist(playlist);
+			for (int t = 1; t <= TRACKS; t++) {
+				entityManager.persist(PlaylistTrack.builder()
+						.playlist(playlist)
+						.title("Track " + t)
+						.author("Artist " + t)
+						.uri("https://youtu.be/" + p + "-" + t)
+						.durationMs(180_000 + t)
+						.position(t * PlaylistService.POSITION_GAP)
+						.build());
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void pageRunsBoundedStatements() {
+		PlaylistPage first = playlistService.firstPage("user");
+		entityManager.clear();
+		statistics.clear();
+
+		PlaylistPage second = playlistService.pageAfter("user", first.last());
+
+		// Page rows, track counts and the number of the first track shown
+		assertEquals(3, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(PlaylistService.PAGE_SIZE + 1, second.sections().get(0).firstNumber());
+	}
+
+	@Test
+	void pagesCoverEveryTrackInBothDirections() {
+		persistPlaylist("empty in the middle", 0);
+		persistPlaylist("after", 3);
+		persistPlaylist("empty at the end", 0);
+
+		// 65 rows: the fifth page opens on the empty playlist
+		List<PlaylistPage> forward = new ArrayList<>(List.of(playlistService.firstPage("user")));
+		while (forward.get(forward.size() - 1).hasNext()) {
+			forward.add(playlistService.pageAfter("user", forward.get(forward.size() - 1).last()));
+		}
+		List<PlaylistPage> backward = new ArrayList<>(List.of(forward.get(forward.size() - 1)));
+		while (backward.get(0).hasPrevious()) {
+			backward.add(0, playlistService.pageBefore("user", backward.get(0).first()));
+		}
+
+		List<String> expected = new ArrayList<>();
+		for (int p = 0; p < PLAYLISTS; p++) {
+			for (int t = 1; t <= TRACKS; t++) {
+				expected.add("playlist " + p + " #" + t + " of " + TRACKS + " Track " + t);
+			}
+		}
+		expected.add("empty in the middle (empty)");
+		for (int t = 1; t <= 3; t++) {
+			expected.add("after #" + t + " of 3 Track " + t);
+		}
+		expected.add("empty at the end (empty)");
+
+		assertEquals(expected, lines(forward));
+		assertEquals(forward, backward);
+		assertEquals(5, forward.size());
+		assertEquals(new PlaylistPage.Key(forward.get(4).sections().get(0).playlistId(), -1), forward.get(4).first());
+	}
+
+	@Test
+	void sectionsNumberTracksFromTheirPlaceInThePlaylist() {
+		PlaylistPage second = playlistService.pageAfter("user", playlistService.firstPage("user").last());
+		PlaylistPage third = playlistService.pageAfter("user", second.last());
+
+		assertEquals(PlaylistService.PAGE_SIZE + 1, second.sections().get(0).firstNumber());
+		// Rows 31-45: tracks 11-20 of the second playlist, then 1-5 of the third
+		assertEquals(List.of("playlist 1", "playlist 2"), third.sections().stream()
+				.map(PlaylistPage.Section::name)
+				.toList());
+		assertEquals(11, third.sections().get(0).firstNumber());
+		assertEquals(1, third.sections().get(1).firstNumber());
+	}
+
+	@Test
+	void pageBeforeNearTheStartIsTheFirstPage() {
+		PlaylistPage first = playlistService.firstPage("user");
+		PlaylistPage second = playlistService.pageAfter("user", first.last());
+		PlaylistPage.Key thirdTrack = new PlaylistPage.Key(first.first().playlistId(),
+				3 * PlaylistService.POSITION_GAP);
+
+		assertEquals(first, playlistService.pageBefore("user", second.first()));
+		// Fewer than a page of rows before the key, e.g. after tracks were removed
+		assertEquals(first, playlistService.pageBefore("user", thirdTrack));
+		assertFalse(first.hasPrevious());
+	}
+
+	@Test
+	void userWithoutPlaylistsGetsAnEmptyPage() {
+		PlaylistPage page = playlistService.firstPage("nobody");
+
+		assertTrue(page.isEmpty());
+		assertFalse(page.hasNext());
+		assertEquals(page, playlistService.pageBefore("nobody", PlaylistPage.Key.START));
+	}
+
+	@Test
+	void searchReadsTheDatabaseOnce() {
+		String first = playlistService.searchTracks("user", "artist 7");
+		playlistService.searchTracks("user", "track 1");
+
+		assertTrue(first.startsWith("🔍 **" + PLAYLISTS + "** saved tracks"), first);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void bulkImportMatchesPerTrackInserts() {
+		List<TrackInfo> tracks = tracks("Imported", 12);
+
+		tracks.forEach(track -> playlistService.addTrack("importer", "one by one", track));
+		playlistService.addTracks("importer", "bulk", tracks);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<PlaylistSnapshot.Track> oneByOne = playlistService.getPlaylistTracks("importer", "one by one");
+		List<PlaylistSnapshot.Track> bulk = playlistService.getPlaylistTracks("importer", "bulk");
+		assertEquals(tracks.size(), bulk.size());
+		for (int i = 0; i < tracks.size(); i++) {
+			assertEquals(oneByOne.get(i).position(), bulk.get(i).position());
+			assertEquals(oneByOne.get(i).uri(), bulk.get(i).uri());
+		}
+	}
+
+	@Test
+	void duplicatesAreFoundWithIndexProbes() {
+		List<TrackInfo> tracks = IntStream.rangeClosed(1, 12)
+				.mapToObj(t -> TrackInfo.builder()
+						.title("Video " + t)
+						.uri("https://www.youtube.com/watch?v=video" + t)
+						.durationMs(1000)
+						.build())
+				.toList();
+		playlistService.addTracks("dedup", "mix", tracks, true);
+		entityManager.flush();
+		entityManager.clear();
+
+		String again = playlistService.addTracks("dedup", "mix", tracks, true);
+		statistics.clear();
+		String single = playlistService.addTrack("dedup", "mix",
+				TrackInfo.builder().title("Video 7").uri("https://youtu.be/video7?si=shared").build(), true);
+
+		assertTrue(again.contains("Added **0**"), again);
+		assertTrue(single.contains("already in playlist"), single);
+		// Playlist lookup plus one probe
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(tracks.size(), playlistService.getPlaylistTracks("dedup", "mix").size());
+
+		playlistService.addTracks("dedup", "mix", List.of(tracks.get(0), tracks.get(0)), false);
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals(tracks.size() + 2, playlistService.getPlaylistTracks("dedup", "mix").size());
+	}
+
+	@Test
+	void removeAndMoveWriteOneRowEach() {
+		int size = 40;
+		playlistService.addTracks("mover", "list", tracks("T", size));
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		playlistService.removeTrack("mover", "list", size / 2);
+		playlistService.moveTrack("mover", "list", 1, size - 1);
+		playlistService.moveTrack("mover", "list", size - 2, 2);
+		entityManager.flush();
+
+		assertEquals(1, statistics.getEntityDeleteCount());
+		assertEquals(2, statistics.getEntityUpdateCount());
+
+		entityManager.clear();
+		List<String> titles = titles("mover", "list");
+		assertEquals(size - 1, titles.size());
+		assertEquals("T 2", titles.get(0));
+		assertEquals("T " + size, titles.get(1));
+		assertEquals("T 1", titles.get(size - 2));
+		assertFalse(titles.contains("T " + (size / 2)));
+	}
+
+	@Test
+	void moveToHeadAndTailStepsOneGapPastTheEnds() {
+		List<String> expected = new ArrayList<>(titles("user", "playlist 0"));
+
+		playlistService.moveTrack("user", "playlist 0", TRACKS, 1);
+		move(expected, TRACKS, 1);
+		playlistService.moveTrack("user", "playlist 0", 2, TRACKS);
+		move(expected, 2, TRACKS);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals(expected, titles("user", "playlist 0"));
+		List<Integer> positions = positions("user", "playlist 0");
+		// Track 20 went one gap in front of track 1, track 1 one gap behind track 19
+		assertEquals(0, positions.get(0));
+		assertEquals(20 * PlaylistService.POSITION_GAP, positions.get(TRACKS - 1));
+	}
+
+	@Test
+	void moveBetweenNeighboursTakesTheMidpoint() {
+		playlistService.moveTrack("user", "playlist 0", 10, 3);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertEquals("Track 10", titles("user", "playlist 0").get(2));
+		// Between track 2 and track 3
+		assertEquals(2 * PlaylistService.POSITION_GAP + PlaylistService.POSITION_GAP / 2,
+				positions("user", "playlist 0").get(2));
+	}
+
+	@Test
+	void movesUpKeepOrderAfterGapsRunOut() {
+		// Each move halves the gap in front of track #2; 1024 runs out after ten
+		List<String> expected = new ArrayList<>(titles("user", "playlist 0"));
+		for (int i = 0; i < 15; i++) {
+			playlistService.moveTrack("user", "playlist 0", TRACKS, 2);
+			move(expected, TRACKS, 2);
+			entityManager.flush();
+			entityManager.clear();
+			assertEquals(expected, titles("user", "playlist 0"));
+			assertStrictlyIncreasing(positions("user", "playlist 0"));
+		}
+	}
+
+	@Test
+	void movesDownKeepOrderAfterGapsRunOut() {
+		// Each move halves the gap in front of the last track
+		List<String> expected = new ArrayList<>(titles("user", "playlist 0"));
+		for (int i = 0; i < 15; i++) {
+			playlistService.moveTrack("user", "playlist 0", 1, TRACKS - 1);
+			move(expected, 1, TRACKS - 1);
+			entityManager.flush();
+			entityManager.clear();
+			assertEquals(expected, titles("user", "playlist 0"));
+			assertStrictlyIncreasing(positions("user", "playlist 0"));
+		}
+	}
+
+	@Test
+	void respaceLeavesEvenGapsAroundTheMovedTrack() {
+		for (int i = 0; i < 11; i++) {
+			playlistService.moveTrack("user", "playlist 0", TRACKS, 2);
+			entityManager.flush();
+			entityManager.clear();
+		}
+
+		// The eleventh move found no gap: every track is respaced to (i + 1) * gap
+		// and the moved one goes halfway between the first two
+		List<Integer> positions = positions("user", "playlist 0");
+		assertEquals(PlaylistService.POSITION_GAP, positions.get(0));
+		assertEquals(PlaylistService.POSITION_GAP + PlaylistService.POSITION_GAP / 2, positions.get(1));
+		assertEquals(2 * PlaylistService.POSITION_GAP, positions.get(2));
+	}
+
+	@Test
+	void invalidMovesChangeNothing() {
+		List<String> before = titles("user", "playlist 0");
+
+		String outOfRange = playlistService.moveTrack("user", "playlist 0", 0, TRACKS + 1);
+		playlistService.moveTrack("user", "playlist 0", 5, 5);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertTrue(outOfRange.startsWith("❌"), outOfRange);
+		assertEquals(before, titles("user", "playlist 0"));
+	}
+
+	private void persistPlaylist(String name, int tracks) {
+		Playlist playlist = Playlist.builder().userId("user").name(name).build();
+		entityManager.persist(playlist);
+		for (int t = 1; t <= tracks; t++) {
+			entityManager.persist(PlaylistTrack.builder()
+					.playlist(playlist)
+					.title("Track " + t)
+					.uri("https://youtu.be/" + name.replace(' ', '-') + t)
+					.durationMs(1000)
+					.position(t * PlaylistService.POSITION_GAP)
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private static List<String> lines(List<PlaylistPage> pages) {
+		List<String> lines = new ArrayList<>();
+		for (PlaylistPage page : pages) {
+			for (PlaylistPage.Section section : page.sections()) {
+				if (section.tracks().isEmpty()) {
+					lines.add(section.name() + " (empty)");
+				}
+				int number = section.firstNumber();
+				for (PlaylistPage.Track track : section.tracks()) {
+					lines.add(section.name() + " #" + number++ + " of " + section.trackCount() + " " + track.title());
+				}
+			}
+		}
+		return lines;
+	}
+
+	private List<String> titles(String userId, String playlistName) {
+		return playlistService.getPlaylistTracks(userId, playlistName).stream()
+				.map(PlaylistSnapshot.Track::title)
+				.toList();
+	}
+
+	private List<Integer> positions(String userId, String playlistName) {
+		return playlistService.getPlaylistTracks(userId, playlistName).stream()
+				.map(PlaylistSnapshot.Track::position)
+				.toList();
+	}
+
+	private static void move(List<String> titles, int from, int to) {
+		titles.add(to - 1, titles.remove(from - 1));
+	}
+
+	private static void assertStrictlyIncreasing(List<Integer> positions) {
+		for (int i = 1; i < positions.size(); i++) {
+			assertTrue(positions.get(i - 1) < positions.get(i), "positions out of order: " + positions);
+		}
+	}
+
+	private static List<TrackInfo> tracks(String title, int count) {
+		return IntStream.rangeClosed(1, count)
+				.mapToObj(t -> TrackInfo.builder()
+						.title(title + " " + t)
+						.author("Artist " + t)
+						.uri("https://youtu.be/" + title.replace(' ', '-') + t)
+						.durationMs(1000 + t)
+						.build())
+				.toList();
+	}
+}
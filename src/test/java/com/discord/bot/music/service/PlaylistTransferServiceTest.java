@@ -0,0 +1,208 @@
+package com.discord.bot.music.service;
+
+import com.discord.bot.music.model.PlaylistSnapshot;
+import com.discord.bot.music.model.TrackInfo;
+import com.discord.bot.music.repository.PlaylistRepository;
+import com.discord.bot.music.repository.PlaylistTrackRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs outside a test transaction so that every import commits or rolls
+ * back on its own, as it does behind the admin API.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ PlaylistTransferService.class, PlaylistService.class, PlaylistCache.class, PlaylistSearchIndex.class,
+		SimpleMeterRegistry.class, JacksonAutoConfiguration.class })
+@TestPropertySource(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"playlist.cache.max-entries=0",
+		"playlist.transfer.max-import-tracks=" + PlaylistTransferServiceTest.MAX_IMPORT_TRACKS
+})
+class PlaylistTransferServiceTest {
+
+	// Room for a few JDBC batches, so a failing import has batches to roll back
+	static final int MAX_IMPORT_TRACKS = 3 * PlaylistService.BATCH_SIZE;
+
+	private static final String HEADER = "{\"format\":\"playlists\",\"version\":1}\n";
+
+	@Autowired
+	private PlaylistTransferService playlistTransferService;
+
+	@Autowired
+	private PlaylistService playlistService;
+
+	@Autowired
+	private PlaylistRepository playlistRepository;
+
+	@Autowired
+	private PlaylistTrackRepository playlistTrackRepository;
+
+	@BeforeEach
+	void seed() {
+		playlistService.addTracks("exporter", "chill", IntStream.rangeClosed(1, 30)
+				.mapToObj(t -> TrackInfo.builder().title("Chill " + t).author("A" + t).uri("https://youtu.be/c" + t)
+						.durationMs(1000 + t).encoded("enc" + t).build())
+				.toList());
+		// No author or encoded track: both are optional in the export
+		playlistService.addTracks("exporter", "gym", IntStream.rangeClosed(1, 5)
+				.mapToObj(t -> TrackInfo.builder().title("Gym " + t).uri("https://youtu.be/g" + t)
+						.durationMs(2000 + t).build())
+				.toList());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		playlistTrackRepository.deleteAllInBatch();
+		playlistRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void exportRoundTripsEveryField() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = playlistTransferService.exportPlaylists("exporter", null, out);
+
+		PlaylistTransferService.ImportResult result = playlistTransferService.importPlaylists("importer",
+				new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(35, exported);
+		assertEquals(new PlaylistTransferService.ImportResult(2, 35), result);
+		for (String name : List.of("chill", "gym")) {
+			assertEquals(fields("exporter", name), fields("importer", name));
+		}
+	}
+
+	@Test
+	void exportOfOnePlaylist() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exported = playlistTransferService.exportPlaylists("exporter", "gym", out);
+
+		PlaylistTransferService.ImportResult result = playlistTransferService.importPlaylists("importer",
+				new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(5, exported);
+		assertEquals(new PlaylistTransferService.ImportResult(1, 5), result);
+		assertTrue(playlistService.getPlaylistTracks("importer", "chill").isEmpty());
+	}
+
+	@Test
+	void importAppendsToExistingPlaylists() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		playlistTransferService.exportPlaylists("exporter", "gym", out);
+
+		playlistTransferService.importPlaylists("exporter", new ByteArrayInputStream(out.toByteArray()));
+
+		List<String> titles = titles("exporter", "gym");
+		assertEquals(10, titles.size());
+		assertEquals(titles.subList(0, 5), titles.subList(5, 10));
+	}
+
+	@Test
+	void importRejectsMalformedFiles() {
+		List<byte[]> files = List.of(
+				"not gzip".getBytes(StandardCharsets.UTF_8),
+				gzip("not json"),
+				gzip(""),
+				gzip("{\"format\":\"something-else\",\"version\":1}\n"),
+				gzip("{\"format\":\"playlists\",\"version\":99}\n"),
+				// Track before any playlist
+				gzip(HEADER + "{\"t\":\"Song\",\"u\":\"https://youtu.be/x\"}\n"),
+				// Track without a URI
+				gzip(HEADER + "{\"p\":\"mix\"}\n{\"t\":\"Song\"}\n"),
+				gzip(HEADER + "{\"p\":\" \"}\n"),
+				// Cut off in the middle of a record
+				gzip(HEADER + "{\"p\":\"mix\"}\n{\"t\":\"So"));
+
+		for (byte[] file : files) {
+			assertThrows(IllegalArgumentException.class,
+					() -> playlistTransferService.importPlaylists("importer", new ByteArrayInputStream(file)));
+		}
+		assertTrue(playlistRepository.findByUserId("importer").isEmpty());
+	}
+
+	@Test
+	void oversizedImportChangesNothing() {
+		StringBuilder file = new StringBuilder(HEADER).append("{\"p\":\"chill\"}\n");
+		for (int t = 1; t <= MAX_IMPORT_TRACKS + 1; t++) {
+			file.append("{\"t\":\"Song ").append(t).append("\",\"u\":\"https://youtu.be/s").append(t)
+					.append("\"}\n");
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> playlistTransferService.importPlaylists("exporter",
+				new ByteArrayInputStream(gzip(file.toString()))));
+
+		// The tracks already flushed in batches are rolled back with the rest
+		assertEquals(30, titles("exporter", "chill").size());
+	}
+
+	@Test
+	void truncatedImportChangesNothing() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int cutAt;
+		// Sync-flushed after every record, so the cut falls exactly after a record
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out, true)) {
+			gzip.write((HEADER + "{\"p\":\"chill\"}\n").getBytes(StandardCharsets.UTF_8));
+			for (int t = 1; t <= PlaylistService.BATCH_SIZE + 50; t++) {
+				gzip.write(("{\"t\":\"Song " + t + "\",\"u\":\"https://youtu.be/s" + t + "\"}\n")
+						.getBytes(StandardCharsets.UTF_8));
+				gzip.flush();
+			}
+			cutAt = out.size();
+			gzip.write("{\"t\":\"Never read\",\"u\":\"https://youtu.be/n\"}\n".getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] truncated = Arrays.copyOf(out.toByteArray(), cutAt);
+
+		assertThrows(EOFException.class, () -> playlistTransferService.importPlaylists("exporter",
+				new ByteArrayInputStream(truncated)));
+
+		assertEquals(30, titles("exporter", "chill").size());
+	}
+
+	private List<String> titles(String userId, String playlistName) {
+		return playlistService.getPlaylistTracks(userId, playlistName).stream()
+				.map(PlaylistSnapshot.Track::title)
+				.toList();
+	}
+
+	private List<List<Object>> fields(String userId, String playlistName) {
+		Long playlistId = playlistRepository.findByUserIdAndName(userId, playlistName).orElseThrow().getId();
+		return playlistTrackRepository.findByPlaylistIdOrderByPositionAsc(playlistId).stream()
+				.map(track -> List.<Object>of(track.getTitle(), track.getUri(), String.valueOf(track.getAuthor()),
+						track.getDurationMs(), String.valueOf(track.getEncoded())))
+				.toList();
+	}
+
+	private static byte[] gzip(String content) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+}